@@ -0,0 +1,85 @@
+package com.app.Todo.benchmark;
+
+import com.app.Todo.TodoApplication;
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.app.Todo.services.TaskService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Boots the application against the H2 (MySQL mode) test database and fills it with users
+ * and tasks. The data comes from a fixed seed, so every run measures the same rows.
+ */
+public final class BenchmarkData {
+
+    public static final String PASSWORD = "benchmark-password";
+
+    private static final String[] VERBS = {
+            "Buy", "Call", "Email", "Fix", "Plan", "Review", "Write", "Book", "Pay", "Clean", "Prepare", "Schedule"
+    };
+    private static final String[] OBJECTS = {
+            "groceries", "dentist appointment", "quarterly report", "invoice", "car service", "birthday gift",
+            "team meeting", "tax return", "gym session", "project proposal", "flight tickets", "rent",
+            "kitchen", "presentation slides", "insurance renewal"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static ConfigurableApplicationContext start(WebApplicationType type, String... args) {
+        return new SpringApplicationBuilder(TodoApplication.class)
+                .profiles("test")
+                .web(type)
+                .run(args);
+    }
+
+    /** Creates users user0..user{n-1} (password {@link #PASSWORD}), each owning tasksPerUser tasks. */
+    public static List<User> seed(ApplicationContext context, int users, int tasksPerUser) {
+        UserRepo userRepo = context.getBean(UserRepo.class);
+        TaskService taskService = context.getBean(TaskService.class);
+        String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+
+        List<User> created = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            User user = new User();
+            user.setUsername("user" + u);
+            user.setPassword(password);
+            userRepo.save(user);
+            created.add(user);
+
+            List<Task> chunk = new ArrayList<>();
+            for (int t = 0; t < tasksPerUser; t++) {
+                Task task = new Task();
+                task.setTitle(VERBS[random.nextInt(VERBS.length)] + " " + OBJECTS[random.nextInt(OBJECTS.length)] + " #" + t);
+                task.setDueDate(today.plusDays(random.nextInt(120) - 30));
+                task.setStatus(Status.values()[random.nextInt(Status.values().length)]);
+                task.setPriority(Priority.values()[random.nextInt(Priority.values().length)]);
+                task.setCategory(Category.values()[random.nextInt(Category.values().length)]);
+                chunk.add(task);
+                if (chunk.size() == TaskService.BULK_LIMIT) {
+                    taskService.createTasks(chunk, user);
+                    chunk = new ArrayList<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                taskService.createTasks(chunk, user);
+            }
+        }
+        return created;
+    }
+}
@@ -0,0 +1,164 @@
+package com.app.Todo.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process HTTP load test. Boots the application on a random port, seeds one user per
+ * worker, then drives /tasks, /tasks/export and /login in turn for a fixed time each and
+ * prints throughput and p50/p99 latency. It does this once per serving mode (platform or
+ * virtual request threads) so the two can be compared side by side.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.app.Todo.benchmark.LoadDriver
+ * -Dbenchmark.args="16 30 2000 platform,virtual"} (workers, seconds per endpoint, tasks per user, modes).
+ */
+public final class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int tasksPerUser = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        String[] modes = (args.length > 3 ? args[3] : "platform,virtual").split(",");
+
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+            // A fresh in-memory database per mode, so both start from the same seeded data
+            try (ConfigurableApplicationContext context = BenchmarkData.start(WebApplicationType.SERVLET,
+                    "--server.port=0", "--management.server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtual,
+                    // Measures raw capacity, so the per-user limits would only get in the way
+                    "--todo.admission.enabled=false",
+                    "--spring.datasource.url=jdbc:h2:mem:load-" + mode
+                            + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1")) {
+                BenchmarkData.seed(context, workers, tasksPerUser);
+                String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+                System.out.printf("%n%s threads: %d workers, %d s per endpoint, %d tasks per user%n",
+                        mode, workers, seconds, tasksPerUser);
+                System.out.printf("%-18s %10s %10s %10s %10s %8s%n", "endpoint", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+                run("GET /tasks", workers, seconds, worker -> worker.get(base + "/tasks"));
+                run("GET /tasks/export", workers, seconds, worker -> worker.get(base + "/tasks/export"));
+                run("POST /login", workers, seconds, worker -> worker.login(base));
+            }
+        }
+    }
+
+    private static void run(String name, int workers, int seconds, Step step) throws Exception {
+        List<Worker> users = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            users.add(new Worker("user" + w));
+        }
+        // Same length of warm-up first so logins, the JIT, caches and the pool are settled before we measure
+        drive(users, seconds, step);
+        Result result = drive(users, seconds, step);
+
+        List<Long> latencies = result.latencies();
+        Collections.sort(latencies);
+        System.out.printf("%-18s %10.1f %10.2f %10.2f %10.2f %8d%n", name,
+                latencies.size() / (double) seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                latencies.isEmpty() ? 0 : latencies.get(latencies.size() - 1) / 1e6, result.errors());
+    }
+
+    private static Result drive(List<Worker> workers, int seconds, Step step) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        // Platform threads, so the driver never competes with the server for virtual-thread carriers
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (Worker worker : workers) {
+                futures.add(pool.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    int errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        boolean ok = step.run(worker);
+                        latencies.add(System.nanoTime() - start);
+                        if (!ok) {
+                            errors++;
+                        }
+                    }
+                    return new Result(latencies, errors);
+                }));
+            }
+            List<Long> all = new ArrayList<>();
+            int errors = 0;
+            for (Future<Result> future : futures) {
+                all.addAll(future.get().latencies());
+                errors += future.get().errors();
+            }
+            return new Result(all, errors);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1e6;
+    }
+
+    private interface Step {
+        boolean run(Worker worker) throws IOException, InterruptedException;
+    }
+
+    private record Result(List<Long> latencies, int errors) {
+    }
+
+    // One simulated user: its own client and session cookie, logged in on first use
+    private static final class Worker {
+        private final String username;
+        private final HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        private boolean loggedIn;
+
+        Worker(String username) {
+            this.username = username;
+        }
+
+        boolean get(String url) throws IOException, InterruptedException {
+            if (!loggedIn) {
+                loggedIn = login(url.substring(0, url.indexOf("/tasks")));
+            }
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        }
+
+        boolean login(String base) throws IOException, InterruptedException {
+            String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                    + "&password=" + URLEncoder.encode(BenchmarkData.PASSWORD, StandardCharsets.UTF_8);
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(base + "/login"))
+                            .header("Content-Type", "application/x-www-form-urlencoded")
+                            .POST(HttpRequest.BodyPublishers.ofString(form))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            // Spring Security answers a good login with a redirect to /tasks
+            return response.statusCode() == 302
+                    && response.headers().firstValue("Location").orElse("").endsWith("/tasks");
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.app.Todo.benchmark;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup comparison of the packaged application. Each mode is started as a fresh JVM on an
+ * in-memory H2 database (the driver is not packaged, so it is added as a module, the way the
+ * fast-startup training run adds it), and the benchmark measures the time from process launch to the first
+ * answered request (GET /login) and the resident set size at that point, read from /proc.
+ * Modes: the plain jar, the same build with Spring AOT enabled, and AOT plus the AppCDS archive
+ * from the fast-startup profile.
+ * <p>
+ * Build with {@code mvn -Pfast-startup package -DskipTests}, then run with {@code mvn -Pbenchmark
+ * test-compile exec:exec -Dbenchmark.main=com.app.Todo.benchmark.StartupBenchmark -Dbenchmark.args="5"}
+ * (runs per mode). Any further arguments are passed to the application, e.g. another datasource.
+ */
+public final class StartupBenchmark {
+
+    private static final Path JAR = Path.of("target", "todo-0.0.1-SNAPSHOT.jar");
+    private static final Path FAST_STARTUP = Path.of("target", "fast-startup");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        List<String> appArgs = args.length > 1 ? Arrays.asList(args).subList(1, args.length)
+                : List.of("--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER",
+                "--spring.datasource.username=sa", "--spring.datasource.password=");
+        List<String> driver = args.length > 1 ? List.of()
+                : List.of("--module-path=" + Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()),
+                "--add-modules=com.h2database");
+        Path extracted = FAST_STARTUP.resolve(JAR.getFileName());
+        Path archive = FAST_STARTUP.resolve("application.jsa");
+        if (!Files.exists(JAR) || !Files.exists(extracted) || !Files.exists(archive)) {
+            throw new IllegalStateException("Build with mvn -Pfast-startup package first (missing " + JAR + ", "
+                    + extracted + " or " + archive + ")");
+        }
+
+        System.out.printf("%-10s %14s %14s %14s %12s%n", "mode", "first req ms", "min ms", "max ms", "RSS MB");
+        measure("jar", runs, jvmArgs(driver, "-jar", JAR.toString()), appArgs);
+        measure("aot", runs, jvmArgs(driver, "-Dspring.aot.enabled=true", "-jar", extracted.toString()), appArgs);
+        measure("aot+cds", runs, jvmArgs(driver, "-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true",
+                "-jar", extracted.toString()), appArgs);
+    }
+
+    private static List<String> jvmArgs(List<String> driver, String... args) {
+        List<String> jvmArgs = new ArrayList<>(driver);
+        jvmArgs.addAll(Arrays.asList(args));
+        return jvmArgs;
+    }
+
+    private static void measure(String mode, int runs, List<String> jvmArgs, List<String> appArgs) throws Exception {
+        // One unmeasured start, so the OS page cache holds the jars for every mode alike
+        startOnce(jvmArgs, appArgs);
+        List<Long> millis = new ArrayList<>();
+        List<Long> rss = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            long[] result = startOnce(jvmArgs, appArgs);
+            millis.add(result[0]);
+            rss.add(result[1]);
+        }
+        Collections.sort(millis);
+        Collections.sort(rss);
+        System.out.printf("%-10s %14d %14d %14d %12.1f%n", mode, millis.get(millis.size() / 2),
+                millis.get(0), millis.get(millis.size() - 1), rss.get(rss.size() / 2) / 1024.0);
+    }
+
+    // {milliseconds to the first answered request, RSS in KB at that point}
+    private static long[] startOnce(List<String> jvmArgs, List<String> appArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=0");
+        command.addAll(appArgs);
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/login")).GET().build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No answer within " + TIMEOUT + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        return new long[]{millis, residentKilobytes(process.pid())};
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // VmRSS from /proc (Linux); 0 where that is not available
+    private static long residentKilobytes(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,106 @@
+package com.app.Todo.benchmark;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskCount;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.services.TaskQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/** The raw TaskRepo queries behind the service paths, without any caching in front of them. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepoBenchmark {
+
+    @Param({"5000"})
+    public int tasksPerUser;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepo taskRepo;
+    private TransactionTemplate tx;
+    private User user;
+    private TaskRow target;
+    private TaskQuery filter;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start(WebApplicationType.NONE);
+        taskRepo = context.getBean(TaskRepo.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        user = BenchmarkData.seed(context, 1, tasksPerUser).get(0);
+        target = taskRepo.findRowsByUser(user).get(0);
+
+        filter = new TaskQuery();
+        filter.setStatus(Status.IN_PROGRESS);
+        filter.setPriority(Priority.HIGH);
+        filter.setSort("date");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Window<TaskRow> list() {
+        TaskQuery query = new TaskQuery();
+        return taskRepo.scrollRows(query.toSpecification(user), query.toSort(), 20, ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public Window<TaskRow> filter() {
+        return taskRepo.scrollRows(filter.toSpecification(user), filter.toSort(), 20, ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public List<TaskCount> count() {
+        return taskRepo.countGroupedByUser(user);
+    }
+
+    @Benchmark
+    public Long export() {
+        return tx.execute(status -> {
+            try (Stream<TaskRow> rows = taskRepo.streamRowsByUser(user)) {
+                return rows.count();
+            }
+        });
+    }
+
+    @Benchmark
+    public Integer update() {
+        flip = !flip;
+        return tx.execute(status -> taskRepo.updateOwned(target.id(), user, null, target.title(), LocalDate.now(),
+                flip ? Status.COMPLETED : Status.IN_PROGRESS, Priority.MEDIUM, Category.WORK, null, 1));
+    }
+}
@@ -0,0 +1,120 @@
+package com.app.Todo.benchmark;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.TaskStats;
+import com.app.Todo.models.User;
+import com.app.Todo.services.TaskExportFormat;
+import com.app.Todo.services.TaskExportService;
+import com.app.Todo.services.TaskQuery;
+import com.app.Todo.services.TaskService;
+import com.app.Todo.services.TaskStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskService hot paths for one user. With cache=false the per-user cache holds nothing,
+ * so every read goes to the database; with cache=true repeated reads are cache hits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    @Param({"5000"})
+    public int tasksPerUser;
+
+    @Param({"false", "true"})
+    public boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskStatsService taskStatsService;
+    private TaskExportService taskExportService;
+    private User user;
+    private TaskRow target;
+    private TaskQuery filter;
+    private TaskQuery search;
+    private boolean flip;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkData.start(WebApplicationType.NONE, cache ? new String[0] : new String[]{"--todo.cache.max-weight=0"});
+        taskService = context.getBean(TaskService.class);
+        taskStatsService = context.getBean(TaskStatsService.class);
+        taskExportService = context.getBean(TaskExportService.class);
+        user = BenchmarkData.seed(context, 1, tasksPerUser).get(0);
+        target = taskService.getAllTasksByUser(user).get(0);
+
+        filter = new TaskQuery();
+        filter.setStatus(Status.IN_PROGRESS);
+        filter.setPriority(Priority.HIGH);
+        filter.setSort("date");
+        search = new TaskQuery();
+        search.setKeyword("report");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Window<TaskRow> list() {
+        return taskService.findTasks(user, new TaskQuery(), ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public Window<TaskRow> filter() {
+        return taskService.findTasks(user, filter, ScrollPosition.keyset());
+    }
+
+    @Benchmark
+    public Window<TaskRow> search() {
+        return taskService.findTasks(user, search, ScrollPosition.offset());
+    }
+
+    // Worst case for the dashboard counters: dropped and rebuilt with one GROUP BY every time
+    @Benchmark
+    public TaskStats count() {
+        taskStatsService.invalidate(user);
+        return taskStatsService.getStats(user);
+    }
+
+    @Benchmark
+    public void export() throws IOException {
+        taskExportService.exportTasks(user, TaskExportFormat.CSV, false, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public boolean update() {
+        flip = !flip;
+        return taskService.updateTask(target.id(), null, target.title(), LocalDate.now(),
+                flip ? Status.COMPLETED : Status.IN_PROGRESS, Priority.MEDIUM, Category.WORK, user);
+    }
+}
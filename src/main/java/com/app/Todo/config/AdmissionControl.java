@@ -0,0 +1,187 @@
+package com.app.Todo.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the expensive endpoint classes.
+ * <p>
+ * Each caller (user, or address plus login name before login) gets a token bucket per class:
+ * {@code rate} requests a second, bursting to {@code burst}; an empty bucket means 429 with a
+ * Retry-After of when the next token is due. Behind that each class has a global budget of
+ * {@code max-concurrent} requests in flight, so one class can never take every request thread
+ * and DB connection. A request over budget waits at most {@code max-wait} for a slot and is
+ * otherwise shed with 503, rather than queueing behind work that is already too slow; its token
+ * is given back, as the caller did nothing wrong.
+ * All four are settable per class as todo.admission.&lt;class&gt;.*, e.g. todo.admission.export.rate.
+ */
+@Component
+public class AdmissionControl {
+
+    public enum EndpointClass {
+        LISTING(20, 40, 64, Duration.ofMillis(50)),
+        SEARCH(5, 20, 16, Duration.ofMillis(50)),
+        EXPORT(0.2, 3, 4, Duration.ZERO),
+        WRITES(10, 30, 32, Duration.ofMillis(50)),
+        AUTH(1, 5, 16, Duration.ofMillis(50));
+
+        private final double rate;
+        private final int burst;
+        private final int maxConcurrent;
+        private final Duration maxWait;
+
+        EndpointClass(double rate, int burst, int maxConcurrent, Duration maxWait) {
+            this.rate = rate;
+            this.burst = burst;
+            this.maxConcurrent = maxConcurrent;
+            this.maxWait = maxWait;
+        }
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    // Why a request was turned away, and when the caller may try again
+    public record Rejection(int status, long retryAfterSeconds) {
+    }
+
+    private final boolean enabled;
+    private final Map<EndpointClass, Budget> budgets = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControl(Environment environment, MeterRegistry meterRegistry) {
+        this.enabled = environment.getProperty("todo.admission.enabled", Boolean.class, true);
+        long maxCallers = environment.getProperty("todo.admission.max-callers", Long.class, 100_000L);
+        Duration idle = environment.getProperty("todo.admission.idle", Duration.class, Duration.ofMinutes(10));
+        for (EndpointClass endpoint : EndpointClass.values()) {
+            String prefix = "todo.admission." + endpoint.tag() + ".";
+            budgets.put(endpoint, new Budget(endpoint,
+                    environment.getProperty(prefix + "rate", Double.class, endpoint.rate),
+                    environment.getProperty(prefix + "burst", Integer.class, endpoint.burst),
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, endpoint.maxConcurrent),
+                    environment.getProperty(prefix + "max-wait", Duration.class, endpoint.maxWait),
+                    maxCallers, idle, meterRegistry));
+        }
+    }
+
+    /**
+     * Null if the request may go ahead, in which case the caller must {@link #release} the class
+     * once it is done; otherwise the rejection to send.
+     */
+    public Rejection admit(EndpointClass endpoint, String caller) throws InterruptedException {
+        return enabled ? budgets.get(endpoint).admit(caller) : null;
+    }
+
+    public void release(EndpointClass endpoint) {
+        if (enabled) {
+            budgets.get(endpoint).slots.release();
+        }
+    }
+
+    private static final class Budget {
+        final double tokensPerNano;
+        final int burst;
+        final int maxConcurrent;
+        final long maxWaitNanos;
+        final Semaphore slots;
+        final Cache<String, TokenBucket> buckets;
+        final Counter rateLimited;
+        final Counter shed;
+        final Timer queued;
+
+        Budget(EndpointClass endpoint, double rate, int burst, int maxConcurrent, Duration maxWait,
+               long maxCallers, Duration idle, MeterRegistry meterRegistry) {
+            this.tokensPerNano = rate / TimeUnit.SECONDS.toNanos(1);
+            this.burst = burst;
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitNanos = maxWait.toNanos();
+            this.slots = new Semaphore(maxConcurrent);
+            // A bucket left alone this long is full again anyway, so forgetting it changes nothing
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxCallers)
+                    .expireAfterAccess(idle)
+                    .build();
+            String tag = endpoint.tag();
+            this.rateLimited = Counter.builder("todo.admission.rejected")
+                    .description("Requests turned away by admission control")
+                    .tag("class", tag).tag("reason", "rate")
+                    .register(meterRegistry);
+            this.shed = Counter.builder("todo.admission.rejected")
+                    .description("Requests turned away by admission control")
+                    .tag("class", tag).tag("reason", "concurrency")
+                    .register(meterRegistry);
+            this.queued = Timer.builder("todo.admission.queued")
+                    .description("Time admitted requests waited for a slot in their class")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("todo.admission.in-flight", slots, s -> this.maxConcurrent - s.availablePermits())
+                    .description("Requests of the class being handled")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("todo.admission.waiting", slots, Semaphore::getQueueLength)
+                    .description("Requests of the class waiting for a slot")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+        }
+
+        Rejection admit(String caller) throws InterruptedException {
+            TokenBucket bucket = buckets.get(caller, key -> new TokenBucket(burst));
+            long waitNanos = bucket.take(tokensPerNano, burst);
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                return new Rejection(429, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)));
+            }
+            if (slots.tryAcquire()) {
+                return null;
+            }
+            long start = System.nanoTime();
+            if (maxWaitNanos > 0 && slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                queued.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return null;
+            }
+            bucket.refund(burst);
+            shed.increment();
+            return new Rejection(503, 1);
+        }
+    }
+
+    // Refilled lazily on each take; only ever held for a few arithmetic operations
+    private static final class TokenBucket {
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(int burst) {
+            this.tokens = burst;
+        }
+
+        // 0 if a token was taken, otherwise how long until one is due
+        synchronized long take(double tokensPerNano, int burst) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        // Gives back the token of a request that was shed for lack of a slot
+        synchronized void refund(int burst) {
+            tokens = Math.min(burst, tokens + 1);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.app.Todo.config;
+
+import com.app.Todo.config.AdmissionControl.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Runs {@link AdmissionControl} inside the security chain: after the session's user is known,
+ * before the login form is processed (so password checks are limited too). Requests are keyed
+ * by user; before login by client address, plus the submitted username if there is one (never by
+ * the username alone, or anyone could use up a user's budget and lock them out of logging in).
+ * Static files, pages that only render a form, and the long-lived event stream are not limited.
+ */
+class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final AdmissionControl admissionControl;
+
+    AdmissionControlFilter(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = classify(request);
+        if (endpoint == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        AdmissionControl.Rejection rejection;
+        try {
+            rejection = admissionControl.admit(endpoint, callerOf(request));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejection = new AdmissionControl.Rejection(HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1);
+        }
+        if (rejection != null) {
+            response.setStatus(rejection.status());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(rejection.retryAfterSeconds()));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write(rejection.status() == 429
+                    ? "Too many requests, please slow down."
+                    : "The server is busy, please try again shortly.");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            admissionControl.release(endpoint);
+        }
+    }
+
+    // Null for requests that are not limited
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        if (!read) {
+            if (path.equals("/login") || path.equals("/register/save") || path.equals("/tasks/profile/update")) {
+                return EndpointClass.AUTH;
+            }
+            return path.startsWith("/tasks") || path.startsWith("/api/") ? EndpointClass.WRITES : null;
+        }
+        if (path.equals("/tasks/export") || path.equals("/api/v1/tasks/all")) {
+            return EndpointClass.EXPORT;
+        }
+        if (path.equals("/tasks/events") || path.equals("/tasks/profile")) {
+            return null;
+        }
+        if (path.equals("/tasks") || path.equals("/api/v1/tasks")) {
+            String keyword = request.getParameter("keyword");
+            return keyword != null && !keyword.isBlank() ? EndpointClass.SEARCH : EndpointClass.LISTING;
+        }
+        return path.startsWith("/tasks/") || path.startsWith("/api/") ? EndpointClass.LISTING : null;
+    }
+
+    private static String callerOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        String address = "addr:" + request.getRemoteAddr();
+        String username = request.getParameter("username");
+        if (username != null && !username.isBlank()) {
+            // Lower-cased, as usernames match without regard to case
+            return address + " login:" + username.toLowerCase(Locale.ROOT);
+        }
+        return address;
+    }
+}
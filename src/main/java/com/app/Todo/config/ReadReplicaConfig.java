@@ -0,0 +1,85 @@
+package com.app.Todo.config;
+
+import com.app.Todo.services.ReadYourWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Optional read replica, on when todo.datasource.replica.url is set. Read-only transactions
+ * (the @Transactional(readOnly = true) service methods, TaskService's cache-miss reads and
+ * Spring Data's own finders) then run on the replica pool; everything else, Flyway and
+ * Hibernate's startup checks included, stays on the primary (spring.datasource.*).
+ * {@link ReadYourWrites} keeps a user who has just written on the primary for a while.
+ * <p>
+ * The pool is picked when a transaction runs its first statement, by which time its read-only
+ * flag is known. That needs a persistence context (and connection) per transaction, which is
+ * why spring.jpa.open-in-view is off.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "todo.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Same credentials as the primary unless given; pool settings under todo.datasource.replica.hikari.*
+    @Bean
+    @ConfigurationProperties("todo.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${todo.datasource.replica.url}") String url,
+                                              @Value("${todo.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${todo.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWrites readYourWrites, MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replica, readYourWrites, meterRegistry));
+        return dataSource;
+    }
+
+    // Two embedded databases (local runs, tests) have no replication between them: this gives the
+    // replica the same schema so reads routed to it work, though they will not see the primary's rows
+    @Bean
+    @ConditionalOnProperty(name = "todo.datasource.replica.migrate", havingValue = "true")
+    public InitializingBean replicaSchema(@Value("${todo.datasource.replica.url}") String url,
+                                          @Value("${todo.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                          @Value("${todo.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                          FlywayProperties flyway) {
+        String vendor = DatabaseDriver.fromJdbcUrl(url).getId();
+        return () -> Flyway.configure()
+                .dataSource(url, username, password)
+                .locations(flyway.getLocations().stream().map(location -> location.replace("{vendor}", vendor))
+                        .toArray(String[]::new))
+                .load()
+                .migrate();
+    }
+}
@@ -0,0 +1,18 @@
+package com.app.Todo.config;
+
+import com.app.Todo.services.LogReminderSink;
+import com.app.Todo.services.ReminderSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Reminders are logged unless another ReminderSink bean is defined
+@Configuration
+public class ReminderConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(ReminderSink.class)
+    public ReminderSink logReminderSink() {
+        return new LogReminderSink();
+    }
+}
@@ -0,0 +1,43 @@
+package com.app.Todo.config;
+
+import com.app.Todo.services.ReadYourWrites;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Where read-only connections come from: the replica, unless the current user is pinned to the
+ * primary by {@link ReadYourWrites}. Each choice is counted in todo.datasource.reads (target=...).
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReadYourWrites readYourWrites;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReadYourWrites readYourWrites,
+                             MeterRegistry meterRegistry) {
+        this.readYourWrites = readYourWrites;
+        this.primaryReads = meterRegistry.counter("todo.datasource.reads", "target", PRIMARY);
+        this.replicaReads = meterRegistry.counter("todo.datasource.reads", "target", REPLICA);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readYourWrites.currentUserPinned()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return REPLICA;
+    }
+}
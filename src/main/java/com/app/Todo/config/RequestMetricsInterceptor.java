@@ -0,0 +1,94 @@
+package com.app.Todo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request numbers that http.server.requests doesn't have:
+ * <ul>
+ *     <li>todo.sql.statements - SQL statements run while handling the request (catches N+1 regressions)</li>
+ *     <li>todo.view.render - time spent rendering the Thymeleaf view</li>
+ * </ul>
+ * Requests slower than the threshold are logged with both numbers.
+ */
+public class RequestMetricsInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+
+    private static final String START = RequestMetricsInterceptor.class.getName() + ".start";
+    private static final String RENDER_START = RequestMetricsInterceptor.class.getName() + ".renderStart";
+    private static final String VIEW = RequestMetricsInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowRequestThreshold;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry, Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestThreshold = slowRequestThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START, System.nanoTime());
+        SqlStatementCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        // Redirects render nothing worth timing
+        if (modelAndView != null && modelAndView.getViewName() != null && !modelAndView.getViewName().startsWith("redirect:")) {
+            request.setAttribute(VIEW, modelAndView.getViewName());
+            request.setAttribute(RENDER_START, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START) instanceof Long start)) {
+            return;
+        }
+        long end = System.nanoTime();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        int statements = SqlStatementCounter.current();
+
+        DistributionSummary.builder("todo.sql.statements")
+                .description("SQL statements run per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statements);
+
+        long renderNanos = 0;
+        if (request.getAttribute(RENDER_START) instanceof Long renderStart) {
+            renderNanos = end - renderStart;
+            Timer.builder("todo.view.render")
+                    .description("Time spent rendering the view")
+                    .tag("view", (String) request.getAttribute(VIEW))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(renderNanos, TimeUnit.NANOSECONDS);
+        }
+
+        Duration took = Duration.ofNanos(end - start);
+        if (took.compareTo(slowRequestThreshold) >= 0) {
+            log.warn("Slow request: {} {} took {} ms ({} SQL statements, {} ms rendering, status {})",
+                    request.getMethod(), uri, took.toMillis(), statements,
+                    TimeUnit.NANOSECONDS.toMillis(renderNanos), response.getStatus());
+        }
+    }
+}
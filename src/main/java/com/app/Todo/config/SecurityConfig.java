@@ -1,10 +1,16 @@
 package com.app.Todo.config;
 
 import com.app.Todo.models.User;
-import com.app.Todo.repo.UserRepo;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.app.Todo.services.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +19,9 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 import java.util.Optional;
 
@@ -20,22 +29,22 @@ import java.util.Optional;
 @EnableWebSecurity
 public class SecurityConfig {
 
-    @Autowired
-    private UserRepo userRepo;
-
-    // 1. Password Encoder
+    // 1. Password Encoder (hashing moves off virtual threads when they serve requests; the timing
+    // is taken around the hash itself, so it excludes any wait for a hashing thread)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                           MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+        return virtualThreads ? new OffloadingPasswordEncoder(bcrypt) : bcrypt;
     }
 
-    // 2. UserDetailsService: Tells Spring how to find users in the DB
+    // 2. UserDetailsService: Tells Spring how to find users (UserCache, backed by the primary DB)
     @Bean
-    public UserDetailsService userDetailsService() {
+    public UserDetailsService userDetailsService(UserCache userCache) {
         return new UserDetailsService() {
             @Override
             public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-                Optional<User> userRes = Optional.ofNullable(userRepo.findByUsername(username));
+                Optional<User> userRes = Optional.ofNullable(userCache.findByUsername(username));
                 if (userRes.isEmpty()) {
                     throw new UsernameNotFoundException("User not found");
                 }
@@ -46,11 +55,14 @@ public class SecurityConfig {
 
     // 3. Security Rules
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AdmissionControl admissionControl) throws Exception {
         http
                 .authorizeHttpRequests((requests) -> requests
                         // 1. PUBLIC URLs (Login, Register, Static Files)
-                        .requestMatchers("/", "/login", "/register", "/css/**", "/js/**", "/images/**").permitAll()
+                        .requestMatchers("/", "/login", "/register", "/register/save", "/css/**", "/js/**", "/images/**").permitAll()
+
+                        // Probes and the metrics scraper (the actuator listens on the management port only)
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
 
                         // 2. PRIVATE URLs (Tasks, Profile)
                         .requestMatchers("/tasks/**", "/profile/**").authenticated()
@@ -70,6 +82,30 @@ public class SecurityConfig {
 
         http.csrf(csrf -> csrf.disable());
 
+        // Per-user rate limits and per-class concurrency budgets, checked before any login is attempted
+        http.addFilterBefore(new AdmissionControlFilter(admissionControl), UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+
+    // 4. The JSON API (/api/**): the browser's session works there as well, and other clients send
+    // HTTP Basic credentials with every request instead (no session is created for them). Without
+    // either the answer is a plain 401, never a redirect to the login page
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http, AdmissionControl admissionControl) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .authorizeHttpRequests((requests) -> requests.anyRequest().authenticated())
+                .httpBasic((basic) -> basic.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .exceptionHandling((exceptions) -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+
+        http.csrf(csrf -> csrf.disable());
+
+        // Admitted before Basic credentials are checked, so password guesses are limited too
+        http.addFilterBefore(new AdmissionControlFilter(admissionControl), BasicAuthenticationFilter.class);
+
         return http.build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.app.Todo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times another encoder's hashing as todo.auth.password (op=encode|matches), so the login path's
+ * BCrypt cost shows up apart from its user lookup (todo.auth.lookup).
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodes;
+    private final Timer matches;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodes = meterRegistry.timer("todo.auth.password", "op", "encode");
+        this.matches = meterRegistry.timer("todo.auth.password", "op", "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodes.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(matches.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,42 @@
+package com.app.Todo.config;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.TaskChange;
+import com.app.Todo.models.TaskForm;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.services.TaskChanges;
+import com.app.Todo.services.TaskEvent;
+import com.app.Todo.services.TaskTrends;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Hints for ahead-of-time processing (the fast-startup build profile). JPA already registers the
+ * entities' mappings; this adds what is only reached by reflection at render or write time: the
+ * Lombok-generated getters and setters the templates bind to (Task, TaskForm, User), the records they show,
+ * the JSON payloads of /tasks/changes, /api/v1/tasks/trends and the event stream, and the
+ * template and migration files.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(TodoRuntimeHints.Resources.class)
+@RegisterReflectionForBinding({Task.class, TaskForm.class, User.class, TaskRow.class, TaskChange.class, TaskChanges.class,
+        TaskEvent.class, TaskTrends.class, TaskTrends.Bucket.class, Status.class, Priority.class, Category.class})
+public class TodoRuntimeHints {
+
+    static class Resources implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources()
+                    .registerPattern("templates/**")
+                    .registerPattern("db/migration/**");
+        }
+    }
+}
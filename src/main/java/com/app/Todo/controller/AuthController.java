@@ -3,6 +3,7 @@ package com.app.Todo.controller;
 import com.app.Todo.models.User;
 import com.app.Todo.repo.UserRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Controller;
@@ -47,12 +48,18 @@ public class AuthController {
     @PostMapping("/register/save")
     public String registerUser(@ModelAttribute User user, RedirectAttributes redirectAttributes) {
 
-        if (userRepo.findByUsername(user.getUsername()) != null) {
+        // The check spares the password hash for names known to be taken; the unique index settles races
+        if (userRepo.existsByUsername(user.getUsername())) {
             redirectAttributes.addFlashAttribute("error", "Username already exists");
             return "redirect:/register";
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        userRepo.save(user);
+        try {
+            userRepo.save(user);
+        } catch (DataIntegrityViolationException e) {
+            redirectAttributes.addFlashAttribute("error", "Username already exists");
+            return "redirect:/register";
+        }
         redirectAttributes.addFlashAttribute("success", "Registration successful! Please log in.");
         return "redirect:/login";
     }
@@ -0,0 +1,219 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.services.InvalidRequestException;
+import com.app.Todo.services.TaskAnalyticsService;
+import com.app.Todo.services.TaskCursor;
+import com.app.Todo.services.TaskExportService;
+import com.app.Todo.services.TaskQuery;
+import com.app.Todo.services.TaskService;
+import com.app.Todo.services.TaskTrends;
+import com.app.Todo.services.TaskVersionStamps;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-only JSON view of the user's tasks for integrations, versioned under /api/v1.
+ * <p>
+ * The list takes the same filters, sort keys and keyset cursor as the dashboard, one page of
+ * {@link TaskService#PAGE_SIZE} at a time; /all streams every task from a DB cursor instead.
+ * Rows go from the {@link TaskRow} projection straight onto the response through a Jackson
+ * generator, and {@code fields=id,title} limits each object to the named fields.
+ * /trends serves the completion and overdue charts from the analytics rollups.
+ * <p>
+ * Callers authenticate with the browser session or, without one, HTTP Basic on every request
+ * (see SecurityConfig). Errors are always JSON: {"error":"..."}.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks", produces = MediaType.APPLICATION_JSON_VALUE)
+public class TaskApiController {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskApiController.class);
+
+    private final TaskService taskService;
+    private final TaskExportService taskExportService;
+    private final TaskVersionStamps taskVersionStamps;
+    private final TaskAnalyticsService taskAnalyticsService;
+    private final ObjectMapper objectMapper;
+
+    public TaskApiController(TaskService taskService, TaskExportService taskExportService,
+                             TaskVersionStamps taskVersionStamps, TaskAnalyticsService taskAnalyticsService,
+                             ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.taskExportService = taskExportService;
+        this.taskVersionStamps = taskVersionStamps;
+        this.taskAnalyticsService = taskAnalyticsService;
+        this.objectMapper = objectMapper;
+    }
+
+    // {"tasks":[...],"nextCursor":"..."}; nextCursor is null on the last page
+    @GetMapping
+    public void listTasks(@RequestParam(required = false) Status status,
+                          @RequestParam(required = false) Priority priority,
+                          @RequestParam(required = false) Category category,
+                          @RequestParam(required = false) String keyword,
+                          @RequestParam(required = false) String sort,
+                          @RequestParam(required = false) String cursor,
+                          @RequestParam(defaultValue = "false") boolean archived,
+                          @RequestParam(required = false) String fields,
+                          @AuthenticationPrincipal User user,
+                          ServletWebRequest webRequest) throws IOException {
+        Set<TaskJsonWriter.Field> selected = TaskJsonWriter.parseFields(fields);
+        if (notModified(webRequest, user)) {
+            return;
+        }
+        TaskQuery query = new TaskQuery();
+        query.setStatus(status);
+        query.setPriority(priority);
+        query.setCategory(category);
+        query.setKeyword(keyword);
+        query.setSort(sort);
+        query.setArchived(archived);
+        Window<TaskRow> tasks = taskService.findTasks(user, query, TaskCursor.decode(cursor));
+
+        try (JsonGenerator json = open(webRequest.getResponse())) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("tasks");
+            for (TaskRow row : tasks) {
+                TaskJsonWriter.writeRow(json, row, selected);
+            }
+            json.writeEndArray();
+            json.writeStringField("nextCursor",
+                    tasks.hasNext() ? TaskCursor.encode(tasks.positionAt(tasks.size() - 1)) : null);
+            json.writeEndObject();
+        }
+    }
+
+    // Every task as one JSON array, written as rows come off the cursor (archived ones last, if asked for)
+    @GetMapping("/all")
+    public void streamTasks(@RequestParam(defaultValue = "false") boolean archived,
+                            @RequestParam(required = false) String fields,
+                            @AuthenticationPrincipal User user,
+                            ServletWebRequest webRequest) throws IOException {
+        Set<TaskJsonWriter.Field> selected = TaskJsonWriter.parseFields(fields);
+        if (notModified(webRequest, user)) {
+            return;
+        }
+        try (JsonGenerator json = open(webRequest.getResponse())) {
+            json.writeStartArray();
+            taskExportService.forEachRow(user, archived, row -> TaskJsonWriter.writeRow(json, row, selected));
+            json.writeEndArray();
+        }
+    }
+
+    // Completion and overdue trends for charts, read from the analytics rollups only
+    @GetMapping("/trends")
+    public void getTrends(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(defaultValue = "DAY") TaskTrends.Granularity granularity,
+                          @AuthenticationPrincipal User user,
+                          HttpServletResponse response) throws IOException {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from
+                : granularity == TaskTrends.Granularity.WEEK ? end.minusWeeks(11) : end.minusDays(29);
+        TaskTrends trends = taskAnalyticsService.getTrends(user, start, end, granularity);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        try (JsonGenerator json = open(response)) {
+            objectMapper.writeValue(json, trends);
+        }
+    }
+
+    @GetMapping("/{id}")
+    public void getTask(@PathVariable Long id,
+                        @RequestParam(required = false) String fields,
+                        @AuthenticationPrincipal User user,
+                        ServletWebRequest webRequest) throws IOException {
+        Set<TaskJsonWriter.Field> selected = TaskJsonWriter.parseFields(fields);
+        if (notModified(webRequest, user)) {
+            return;
+        }
+        List<TaskRow> rows = taskService.getTaskRows(List.of(id), user);
+        if (rows.isEmpty()) {
+            writeError(webRequest.getResponse(), HttpStatus.NOT_FOUND, "Task not found");
+            return;
+        }
+        try (JsonGenerator json = open(webRequest.getResponse())) {
+            TaskJsonWriter.writeRow(json, rows.get(0), selected);
+        }
+    }
+
+    // Bad enum values, ids, field names or ranges; answered here as JSON rather than by the HTML error
+    // page. Anything else is not the caller's fault, and its message is not theirs to see.
+    @ExceptionHandler({MethodArgumentTypeMismatchException.class, InvalidRequestException.class})
+    public void badRequest(Exception ex, HttpServletResponse response) throws IOException {
+        String message = ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? "Invalid value for " + mismatch.getName()
+                : ex.getMessage();
+        writeError(response, HttpStatus.BAD_REQUEST, message);
+    }
+
+    // Anything else is a JSON 500 as well, rather than GlobalExceptionHandler's error page
+    @ExceptionHandler(Exception.class)
+    public void serverError(Exception ex, HttpServletResponse response) throws IOException {
+        log.error("API request failed", ex);
+        writeError(response, HttpStatus.INTERNAL_SERVER_ERROR, "Something went wrong. Please try again.");
+    }
+
+    // Conditional GET on the user's version stamp, as for the dashboard; each URL is cached separately
+    private boolean notModified(ServletWebRequest webRequest, User user) {
+        TaskVersionStamps.Stamp stamp = taskVersionStamps.current(user);
+        HttpServletResponse response = webRequest.getResponse();
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE + ", " + HttpHeaders.AUTHORIZATION);
+        String etag = "\"" + user.getId() + "-" + stamp.version() + "-api-v1\"";
+        return webRequest.checkNotModified(etag, stamp.lastModified());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        if (response.isCommitted()) {
+            // Part of a body has gone out already; it ends there rather than with an error spliced in
+            return;
+        }
+        response.resetBuffer();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        try (JsonGenerator json = open(response)) {
+            json.writeStartObject();
+            json.writeStringField("error", message);
+            json.writeEndObject();
+        }
+    }
+
+    // Straight onto the servlet stream; the generator's own buffer is the only one in between
+    private JsonGenerator open(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // A stream that fails part-way must end truncated, not be closed off into valid-looking JSON
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        return json;
+    }
+}
@@ -1,28 +1,85 @@
 package com.app.Todo.controller;
 
 import com.app.Todo.models.*;
+import com.app.Todo.services.TaskChangeLog;
+import com.app.Todo.services.TaskChanges;
+import com.app.Todo.services.TaskCursor;
+import com.app.Todo.services.TaskEventBus;
+import com.app.Todo.services.TaskExportFormat;
+import com.app.Todo.services.TaskExportService;
+import com.app.Todo.services.TaskImportResult;
+import com.app.Todo.services.TaskImportService;
+import com.app.Todo.services.TaskQuery;
 import com.app.Todo.services.TaskService;
+import com.app.Todo.services.TaskStatsService;
+import com.app.Todo.services.TaskVersionStamps;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-
+import org.springframework.web.servlet.support.RequestContextUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 @Controller
 @RequestMapping("/tasks")
 public class TaskController {
 
     private final TaskService taskService;
-
-    public TaskController(TaskService taskService) {
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskStatsService taskStatsService;
+    private final TaskRowRenderer taskRowRenderer;
+    private final TaskEventBus taskEventBus;
+    private final TaskChangeLog taskChangeLog;
+    private final TaskVersionStamps taskVersionStamps;
+    private final Validator validator;
+
+    // How long one event stream stays open; the browser then reconnects and resumes from its last event
+    @Value("${todo.events.timeout:30m}")
+    private Duration eventStreamTimeout;
+
+    public TaskController(TaskService taskService, TaskExportService taskExportService,
+                          TaskImportService taskImportService, TaskStatsService taskStatsService,
+                          TaskRowRenderer taskRowRenderer, TaskEventBus taskEventBus, TaskChangeLog taskChangeLog,
+                          TaskVersionStamps taskVersionStamps, Validator validator) {
         this.taskService = taskService;
+        this.taskExportService = taskExportService;
+        this.taskImportService = taskImportService;
+        this.taskStatsService = taskStatsService;
+        this.taskRowRenderer = taskRowRenderer;
+        this.taskEventBus = taskEventBus;
+        this.taskChangeLog = taskChangeLog;
+        this.taskVersionStamps = taskVersionStamps;
+        this.validator = validator;
     }
 
     @GetMapping("/profile")
@@ -52,45 +109,38 @@ public class TaskController {
                           @RequestParam(required = false) Category category,
                           @RequestParam(required = false) String keyword, // NEW PARAM
                           @RequestParam(required = false) String sort,
+                          @RequestParam(required = false) String cursor, // keyset position of the page
+                          @RequestParam(defaultValue = "false") boolean archived, // list the archive instead
                           @AuthenticationPrincipal User user,
-                          Model model){
-
-        List<Task> tasks;
-
-        // 1. If user is searching, do that first
-        if (keyword != null && !keyword.isEmpty()) {
-            tasks = taskService.searchTasks(user, keyword);
-        }
-        // 2. Otherwise, check standard filters
-        else if (status != null) {
-            tasks = taskService.getTasksByStatus(user, status);
-        } else if (priority != null) {
-            tasks = taskService.getTasksByPriority(user, priority);
-        } else if (category != null) {
-            tasks = taskService.getTasksByCategory(user, category);
-        } else if ("date".equals(sort)) {
-            tasks = taskService.getTasksSortedByDate(user);
-        } else if ("status".equals(sort)) {
-            tasks = taskService.getTasksSortedByStatus(user);
-        } else {
-            tasks = taskService.getAllTasksByUser(user);
+                          Model model,
+                          HttpServletRequest request,
+                          HttpServletResponse response,
+                          ServletWebRequest webRequest) throws Exception {
+
+        // Filters, search and sort keys all combine into a single query
+        TaskQuery query = new TaskQuery();
+        query.setStatus(status);
+        query.setPriority(priority);
+        query.setCategory(category);
+        query.setKeyword(keyword);
+        query.setSort(sort);
+        query.setArchived(archived);
+
+        // Taken before reading, so the page's event stream replays anything committed while it renders
+        String eventsSince = taskEventBus.currentEventId(user);
+        if (notModified(webRequest, user, eventsSince)) {
+            return null;
         }
+        model.addAttribute("eventsSince", eventsSince);
 
-        // --- NEW: CALCULATE STATS ---
-        long totalTasks = taskService.countByUser(user); // You need this method in Service/Repo
-        long completedTasks = taskService.countByUserAndStatus(user, Status.COMPLETED);
+        ScrollPosition position = TaskCursor.decode(cursor);
+        Window<TaskRow> tasks = taskService.findTasks(user, query, position);
 
-        int progressPercent = 0;
-        if (totalTasks != 0) {
-            progressPercent = (int) ((completedTasks * 100) / totalTasks);
-        }
-
-        model.addAttribute("totalTasks", totalTasks);
-        model.addAttribute("completedTasks", completedTasks);
-        model.addAttribute("progressPercent", progressPercent);
-        // ---------------------------------
+        addStats(model, user);
 
-        model.addAttribute("tasks", tasks);
+        model.addAttribute("tasks", tasks.getContent());
+        model.addAttribute("taskRows", archived ? List.of()
+                : taskRowRenderer.renderAll(tasks.getContent(), request, response));
         model.addAttribute("task", new Task());
         model.addAttribute("allStatuses", Status.values());
         model.addAttribute("allPriorities", Priority.values());
@@ -100,11 +150,121 @@ public class TaskController {
         model.addAttribute("selectedPriority", priority);
         model.addAttribute("selectedCategory", category);
 
+        model.addAttribute("selectedSort", sort);
+
         model.addAttribute("searchKeyword", keyword);
+        model.addAttribute("showArchived", archived);
+
+        // --- PAGINATION: same filters, next keyset position ---
+        if (tasks.hasNext()) {
+            String nextCursor = TaskCursor.encode(tasks.positionAt(tasks.size() - 1));
+            model.addAttribute("nextPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", nextCursor).toUriString());
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            model.addAttribute("firstPageUrl", ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor").toUriString());
+        }
 
         return "tasks";
     }
 
+    /**
+     * Conditional GET. The ETag is the user's version stamp (bumped by every task write) plus
+     * whatever else the response depends on, so a match means the client's copy is current and
+     * it gets a 304 before any task is read or anything is rendered. Responses carrying a flash
+     * message are one-offs and are neither validated nor cached.
+     */
+    private boolean notModified(ServletWebRequest webRequest, User user, String variant) {
+        HttpServletResponse response = webRequest.getResponse();
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(webRequest.getRequest());
+        if (flash != null && !flash.isEmpty()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            return false;
+        }
+        TaskVersionStamps.Stamp stamp = taskVersionStamps.current(user);
+        // Revalidate every time; keyed by user so a shared browser never shows one user another's tasks
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+        String etag = "\"" + user.getId() + "-" + stamp.version() + "-" + variant + "\"";
+        return webRequest.checkNotModified(etag, stamp.lastModified());
+    }
+
+    // --- STATS: kept in memory by TaskStatsService, no extra queries ---
+    private void addStats(Model model, User user) {
+        TaskStats stats = taskStatsService.getStats(user);
+        model.addAttribute("totalTasks", stats.getTotal());
+        model.addAttribute("completedTasks", stats.getCount(Status.COMPLETED));
+        model.addAttribute("progressPercent", stats.getProgressPercent());
+    }
+
+    // --- FRAGMENT MUTATIONS: sent by the dashboard with an X-Fragment header, answered with just the
+    // changed row and the progress widget. Plain form posts (no script) still get the redirects below. ---
+
+    @PostMapping(headers = "X-Fragment")
+    public String createTaskFragment(@Valid @ModelAttribute Task task, BindingResult result,
+                                     @AuthenticationPrincipal User user, Model model,
+                                     HttpServletRequest request, HttpServletResponse response) throws Exception {
+        if (result.hasErrors()) {
+            // Any non-2xx makes the page resubmit the form normally, which shows the usual error
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return taskUpdate(List.of(), List.of(), user, model, request, response);
+        }
+        TaskRow row = taskService.createTask(task.getTitle(), task.getDueDate(), task.getStatus(),
+                task.getPriority(), task.getCategory(), user);
+        return taskUpdate(List.of(row), List.of(), user, model, request, response);
+    }
+
+    @PostMapping(value = "/{id}/status", headers = "X-Fragment")
+    public String changeStatusFragment(@PathVariable Long id, @RequestParam Status status,
+                                       @AuthenticationPrincipal User user, Model model,
+                                       HttpServletRequest request, HttpServletResponse response) throws Exception {
+        TaskRow row = taskService.changeStatus(id, status, user);
+        // Gone already (deleted in another tab): drop it from the page
+        return row == null ? taskUpdate(List.of(), List.of(id), user, model, request, response)
+                : taskUpdate(List.of(row), List.of(), user, model, request, response);
+    }
+
+    @PostMapping(value = "/{id}/delete", headers = "X-Fragment")
+    public String deleteTaskFragment(@PathVariable Long id, @AuthenticationPrincipal User user, Model model,
+                                     HttpServletRequest request, HttpServletResponse response) throws Exception {
+        // The bulk path reads the row under lock first, so the stats are adjusted rather than recounted
+        taskService.deleteTasks(List.of(id), user);
+        return taskUpdate(List.of(), List.of(id), user, model, request, response);
+    }
+
+    private String taskUpdate(List<TaskRow> rows, List<Long> removedIds, User user, Model model,
+                              HttpServletRequest request, HttpServletResponse response) throws Exception {
+        model.addAttribute("rowHtml", taskRowRenderer.renderAll(rows, request, response));
+        model.addAttribute("removedIds", removedIds);
+        addStats(model, user);
+        return "fragments/task-update";
+    }
+
+    // --- LIVE UPDATES: committed changes to the user's tasks pushed as Server-Sent Events. The page
+    // removes deleted rows itself and fetches the changed ones (plus the progress widget) below. ---
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                   @RequestParam(required = false) String since,
+                                   @AuthenticationPrincipal User user) {
+        SseEmitter emitter = new SseEmitter(eventStreamTimeout.toMillis());
+        // A reconnecting browser sends the last id it saw; a fresh page starts from when it was rendered
+        Runnable unsubscribe = taskEventBus.subscribe(user, lastEventId != null ? lastEventId : since,
+                new TaskEventStream(emitter));
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    @GetMapping("/fragments")
+    public String taskFragments(@RequestParam(required = false) List<Long> ids, @AuthenticationPrincipal User user,
+                                Model model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        List<TaskRow> rows = ids == null ? List.of() : taskService.getTaskRows(ids, user);
+        return taskUpdate(rows, List.of(), user, model, request, response);
+    }
+
     @PostMapping
     public String createTask(@Valid @ModelAttribute Task task, BindingResult result, RedirectAttributes redirectAttributes, @AuthenticationPrincipal User user) {
 
@@ -127,17 +287,96 @@ public class TaskController {
         return "redirect:/tasks";
     }
 
-    @GetMapping("/{id}/edit")
-    public String showEditForm(@PathVariable Long id, Model model, @AuthenticationPrincipal User user) {
-        Task task = taskService.getTaskById(id);
+    // --- BULK ACTIONS (one title per line / checked tasks on the dashboard) ---
+
+    @PostMapping("/bulk")
+    public String createTasks(@RequestParam String titles,
+                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueDate,
+                              @RequestParam(defaultValue = "NOT_STARTED") Status status,
+                              @RequestParam(defaultValue = "MEDIUM") Priority priority,
+                              @RequestParam(defaultValue = "OTHER") Category category,
+                              @AuthenticationPrincipal User user,
+                              RedirectAttributes redirectAttributes) {
+        List<Task> tasks = new ArrayList<>();
+        for (String line : titles.split("\\R")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            Task task = new Task();
+            task.setTitle(line.trim());
+            task.setDueDate(dueDate);
+            task.setStatus(status);
+            task.setPriority(priority);
+            task.setCategory(category);
+            if (!validator.validate(task).isEmpty()) {
+                redirectAttributes.addFlashAttribute("error", "Invalid title: \"" + line.trim() + "\"");
+                return "redirect:/tasks";
+            }
+            tasks.add(task);
+        }
+        if (tasks.isEmpty() || tasks.size() > TaskService.BULK_LIMIT) {
+            redirectAttributes.addFlashAttribute("error", "Enter between 1 and " + TaskService.BULK_LIMIT + " titles");
+            return "redirect:/tasks";
+        }
+        int created = taskService.createTasks(tasks, user);
+        redirectAttributes.addFlashAttribute("successMessage", created + " tasks created!");
+        return "redirect:/tasks";
+    }
 
-        // SAFETY CHECK 1: Check if task exists (prevent crash if ID is fake)
-        if (task == null) {
+    @PostMapping("/bulk/status")
+    public String updateStatus(@RequestParam(required = false) List<Long> ids, @RequestParam Status status,
+                               @AuthenticationPrincipal User user, RedirectAttributes redirectAttributes) {
+        if (!checkSelection(ids, redirectAttributes)) {
             return "redirect:/tasks";
         }
+        int updated = taskService.updateStatus(ids, status, user);
+        redirectAttributes.addFlashAttribute("successMessage", updated + " tasks updated!");
+        return "redirect:/tasks";
+    }
+
+    @PostMapping("/bulk/category")
+    public String updateCategory(@RequestParam(required = false) List<Long> ids, @RequestParam Category category,
+                                 @AuthenticationPrincipal User user, RedirectAttributes redirectAttributes) {
+        if (!checkSelection(ids, redirectAttributes)) {
+            return "redirect:/tasks";
+        }
+        int updated = taskService.updateCategory(ids, category, user);
+        redirectAttributes.addFlashAttribute("successMessage", updated + " tasks updated!");
+        return "redirect:/tasks";
+    }
 
-        // SAFETY CHECK 2: Ensure the logged-in user owns this task (prevent hacking)
-        if (!task.getUser().getId().equals(user.getId())) {
+    @PostMapping("/bulk/delete")
+    public String deleteTasks(@RequestParam(required = false) List<Long> ids,
+                              @AuthenticationPrincipal User user, RedirectAttributes redirectAttributes) {
+        if (!checkSelection(ids, redirectAttributes)) {
+            return "redirect:/tasks";
+        }
+        int deleted = taskService.deleteTasks(ids, user);
+        redirectAttributes.addFlashAttribute("successMessage", deleted + " tasks deleted!");
+        return "redirect:/tasks";
+    }
+
+    private boolean checkSelection(List<Long> ids, RedirectAttributes redirectAttributes) {
+        if (ids == null || ids.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Select at least one task");
+            return false;
+        }
+        if (ids.size() > TaskService.BULK_LIMIT) {
+            redirectAttributes.addFlashAttribute("error", "Select at most " + TaskService.BULK_LIMIT + " tasks");
+            return false;
+        }
+        return true;
+    }
+
+    @GetMapping("/{id}/edit")
+    public String showEditForm(@PathVariable Long id, Model model, @AuthenticationPrincipal User user,
+                               ServletWebRequest webRequest) {
+        if (notModified(webRequest, user, "edit-" + id)) {
+            return null;
+        }
+        // Only the user's own task is found, so another user's id (or a fake one) finds nothing
+        TaskForm task = taskService.getTaskForm(id, user);
+        if (task == null) {
             return "redirect:/tasks";
         }
 
@@ -149,48 +388,100 @@ public class TaskController {
     }
 
     @PostMapping("/{id}/update")
-    public String updateTask(@PathVariable Long id, @ModelAttribute Task task, RedirectAttributes redirectAttributes, @AuthenticationPrincipal User user) {
-        taskService.updateTask(id, task.getTitle(), task.getDueDate(), task.getStatus(), task.getPriority(),task.getCategory(), user);
+    public String updateTask(@PathVariable Long id, @ModelAttribute TaskForm task, RedirectAttributes redirectAttributes, @AuthenticationPrincipal User user) {
+        try {
+            if (!taskService.updateTask(id, task.getVersion(), task.getTitle(), task.getDueDate(), task.getStatus(),
+                    task.getPriority(), task.getCategory(), user)) {
+                redirectAttributes.addFlashAttribute("error", "Task not found");
+                return "redirect:/tasks";
+            }
+        } catch (OptimisticLockingFailureException e) {
+            // Edited elsewhere (another tab) since this form was opened: show the current values again
+            redirectAttributes.addFlashAttribute("error", "This task was changed somewhere else. Review it and save again.");
+            return "redirect:/tasks/" + id + "/edit";
+        }
         redirectAttributes.addFlashAttribute("successMessage", "Task updated!");
         return "redirect:/tasks";
     }
 
+    @PostMapping("/{id}/status")
+    public String changeStatus(@PathVariable Long id, @RequestParam Status status, @AuthenticationPrincipal User user) {
+        taskService.changeStatus(id, status, user);
+        return "redirect:/tasks";
+    }
+
     @PostMapping("/{id}/delete")
-    public String deleteTask(@PathVariable Long id, @AuthenticationPrincipal User user) {
+    public String deleteTask(@PathVariable Long id, @RequestParam(defaultValue = "false") boolean archived,
+                             @AuthenticationPrincipal User user) {
         taskService.deleteTask(id, user);
-        return "redirect:/tasks";
+        return archived ? "redirect:/tasks?archived=true" : "redirect:/tasks";
+    }
+
+    // Delta sync for offline/mobile clients: only what changed after the sequence they last saw (0 = everything)
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public TaskChanges getChanges(@RequestParam(defaultValue = "0") long since, @AuthenticationPrincipal User user,
+                                  ServletWebRequest webRequest) {
+        if (notModified(webRequest, user, "changes")) {
+            return null;
+        }
+        return taskChangeLog.changesSince(user, Math.max(since, 0));
     }
 
     @GetMapping("/export")
-    public ResponseEntity<String> exportToCSV(@AuthenticationPrincipal User user) {
-        // 1. Get User's Tasks
-        List<Task> tasks = taskService.getAllTasksByUser(user);
-
-        // 2. Build CSV String
-        StringBuilder csvBuilder = new StringBuilder();
-
-        // Add CSV Header Row
-        csvBuilder.append("ID,Title,Due Date,Status,Priority,Category\n");
-
-        // Add Task Rows
-        for (Task task : tasks) {
-            csvBuilder.append(task.getId()).append(",");
-            csvBuilder.append(task.getTitle()).append(",");
-            csvBuilder.append(task.getDueDate()).append(",");
-            csvBuilder.append(task.getStatus()).append(",");
-            csvBuilder.append(task.getPriority()).append(",");
-            csvBuilder.append(task.getCategory()).append("\n");
-        }
-
-        // 3. Prepare Response Headers
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.valueOf("text/csv"));
-        headers.setContentDispositionFormData("attachment", "my_tasks.csv");
-
-        // 4. Return Data
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(csvBuilder.toString());
+    public void exportTasks(@RequestParam(defaultValue = "CSV") TaskExportFormat format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            @RequestParam(defaultValue = "false") boolean archived,
+                            @AuthenticationPrincipal User user,
+                            HttpServletResponse response,
+                            ServletWebRequest webRequest) throws IOException {
+        if (notModified(webRequest, user, format + (gzip ? "-gzip" : "") + (archived ? "-archived" : ""))) {
+            return;
+        }
+        // 1. Headers go out first, then rows are streamed as they come off the DB cursor
+        String fileName = "my_tasks." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+
+        // 2. Optionally compress on the fly
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            out = new GZIPOutputStream(out, 8192);
+        }
+        taskExportService.exportTasks(user, format, archived, out);
+        if (gzip) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+    }
+
+    // Accepts what /export produces: .csv or .jsonl, optionally gzipped
+    @PostMapping("/import")
+    public String importTasks(@RequestParam("file") MultipartFile file, @AuthenticationPrincipal User user,
+                              RedirectAttributes redirectAttributes) throws IOException {
+        if (file.isEmpty()) {
+            redirectAttributes.addFlashAttribute("error", "Choose a file to import");
+            return "redirect:/tasks";
+        }
+        String fileName = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase(Locale.ROOT);
+        boolean gzip = fileName.endsWith(".gz");
+        if (gzip) {
+            fileName = fileName.substring(0, fileName.length() - 3);
+        }
+        TaskExportFormat format = fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson")
+                ? TaskExportFormat.JSONL : TaskExportFormat.CSV;
+
+        TaskImportResult result;
+        try (InputStream in = gzip ? new GZIPInputStream(file.getInputStream(), 8192) : file.getInputStream()) {
+            result = taskImportService.importTasks(in, format, user);
+        }
+        redirectAttributes.addFlashAttribute("successMessage", result.getImportedCount() + " tasks imported!");
+        if (result.getFailedCount() > 0) {
+            redirectAttributes.addFlashAttribute("error", result.getFailedCount() + " rows were skipped");
+            redirectAttributes.addFlashAttribute("importErrors", result.getErrors());
+        }
+        return "redirect:/tasks";
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.services.TaskEvent;
+import com.app.Todo.services.TaskEventBus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+// Writes one user's task events to their open SSE connection; a failed write ends the stream
+class TaskEventStream implements TaskEventBus.Listener {
+
+    private final SseEmitter emitter;
+
+    TaskEventStream(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void onEvent(String id, TaskEvent event) throws IOException {
+        send(SseEmitter.event().id(id).name("tasks").data(event, MediaType.APPLICATION_JSON));
+    }
+
+    @Override
+    public void onReset() throws IOException {
+        send(SseEmitter.event().name("reset").data("reset"));
+    }
+
+    @Override
+    public void onHeartbeat() throws IOException {
+        // A comment line: keeps proxies from closing the idle connection, ignored by EventSource
+        send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            throw e;
+        }
+    }
+}
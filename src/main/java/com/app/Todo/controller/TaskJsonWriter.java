@@ -0,0 +1,76 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.services.InvalidRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Writes task rows as JSON objects straight onto a streaming generator: no per-row DTO, map or
+ * tree, and the field names are encoded once up front. Only the selected fields are written.
+ */
+final class TaskJsonWriter {
+
+    enum Field {
+        ID("id"), TITLE("title"), DUE_DATE("dueDate"), STATUS("status"), PRIORITY("priority"), CATEGORY("category");
+
+        final SerializableString jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = new SerializedString(jsonName);
+        }
+    }
+
+    private TaskJsonWriter() {
+    }
+
+    // "title,dueDate" -> those two; null or blank means every field
+    static Set<Field> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(Field.class);
+        }
+        Set<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(fieldNamed(trimmed));
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidRequestException("No fields selected");
+        }
+        return selected;
+    }
+
+    private static Field fieldNamed(String name) {
+        for (Field field : Field.values()) {
+            if (field.jsonName.getValue().toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unknown field: " + name);
+    }
+
+    static void writeRow(JsonGenerator json, TaskRow row, Set<Field> fields) throws IOException {
+        json.writeStartObject();
+        for (Field field : fields) {
+            json.writeFieldName(field.jsonName);
+            switch (field) {
+                case ID -> json.writeNumber(row.id());
+                case TITLE -> json.writeString(row.title());
+                case DUE_DATE -> json.writeString(row.dueDate() == null ? null : row.dueDate().toString());
+                case STATUS -> json.writeString(row.status() == null ? null : row.status().name());
+                case PRIORITY -> json.writeString(row.priority() == null ? null : row.priority().name());
+                case CATEGORY -> json.writeString(row.category() == null ? null : row.category().name());
+            }
+        }
+        json.writeEndObject();
+    }
+}
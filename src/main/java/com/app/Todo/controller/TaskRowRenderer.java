@@ -0,0 +1,96 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.models.TaskRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.spring6.view.ThymeleafViewResolver;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the task-row fragment to HTML and keeps the result.
+ * <p>
+ * Entries are keyed by the row itself, i.e. every value the fragment shows. Any change to a
+ * task (which also bumps its version) therefore produces a new key, so a cached row can never
+ * be stale; old versions simply age out. The dashboard and the fragment endpoints share it,
+ * so a row is only rendered again after it has actually changed.
+ * Hit/miss counts are published as the "cache.*" metrics with cache=task-rows.
+ */
+@Component
+public class TaskRowRenderer {
+
+    static final String ROW_VIEW = "fragments/task-row :: taskRow";
+
+    private final ThymeleafViewResolver viewResolver;
+    private final Cache<TaskRow, String> rendered;
+
+    public TaskRowRenderer(ThymeleafViewResolver viewResolver,
+                           @Value("${todo.cache.rendered-rows:10000}") long maxRows,
+                           MeterRegistry meterRegistry) {
+        this.viewResolver = viewResolver;
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(maxRows)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rendered, "task-rows");
+    }
+
+    public String render(TaskRow row, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        String html = rendered.getIfPresent(row);
+        if (html == null) {
+            html = renderView(ROW_VIEW, Map.of("task", row), request, response);
+            rendered.put(row, html);
+        }
+        return html;
+    }
+
+    public List<String> renderAll(List<TaskRow> rows, HttpServletRequest request, HttpServletResponse response)
+            throws Exception {
+        String[] html = new String[rows.size()];
+        for (int i = 0; i < html.length; i++) {
+            html[i] = render(rows.get(i), request, response);
+        }
+        return List.of(html);
+    }
+
+    // Runs the normal Thymeleaf view (links, dialects, request context) but captures its output
+    private String renderView(String viewName, Map<String, ?> model, HttpServletRequest request,
+                              HttpServletResponse response) throws Exception {
+        View view = viewResolver.resolveViewName(viewName, RequestContextUtils.getLocale(request));
+        StringWriter out = new StringWriter();
+        PrintWriter writer = new PrintWriter(out);
+        view.render(model, request, new HttpServletResponseWrapper(response) {
+            @Override
+            public PrintWriter getWriter() {
+                return writer;
+            }
+
+            @Override
+            public void setContentType(String type) {
+            }
+
+            @Override
+            public void setCharacterEncoding(String charset) {
+            }
+
+            @Override
+            public void setLocale(Locale locale) {
+            }
+        });
+        writer.flush();
+        return out.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.Todo.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// How many of a user's tasks of one category and priority were completed on a day; written only by TaskRollups
+@Entity
+@Table(name = "task_completion_daily")
+@IdClass(DailyCompletion.Key.class)
+@Immutable
+@Getter
+@NoArgsConstructor
+public class DailyCompletion {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private LocalDate rollupDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Category category;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Priority priority;
+
+    private int completed;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate rollupDate;
+        private Category category;
+        private Priority priority;
+    }
+}
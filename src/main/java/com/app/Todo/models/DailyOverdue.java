@@ -0,0 +1,40 @@
+package com.app.Todo.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// A user's open, past-due tasks as counted at the start of a day; written only by TaskRollups
+@Entity
+@Table(name = "task_overdue_daily")
+@IdClass(DailyOverdue.Key.class)
+@Immutable
+@Getter
+@NoArgsConstructor
+public class DailyOverdue {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private LocalDate rollupDate;
+
+    private int overdue;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate rollupDate;
+    }
+}
@@ -0,0 +1,7 @@
+package com.app.Todo.models;
+
+import java.time.LocalDate;
+
+// What the reminder scan needs to know about a task that is due
+public record DueTask(Long id, Long userId, String title, LocalDate dueDate) {
+}
@@ -9,6 +9,7 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.ToString;
 import org.springframework.format.annotation.DateTimeFormat;
 
+import java.time.Instant;
 import java.time.LocalDate;
 
 
@@ -16,13 +17,32 @@ import java.time.LocalDate;
 @Data
 public class Task {
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    // Pooled ids (50 per round-trip) so Hibernate can batch inserts; on MySQL task_seq is a table
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
+    // Bumped on every update; the edit form sends it back so a stale save is rejected, not applied
+    @Version
+    private Long version;
+
+    // The owner's change sequence at this task's last write; delta sync returns tasks above a client's mark
+    private long changeSeq;
+
+    // Reminders already sent for the current due date (see TaskReminderService)
+    private int reminderLevel;
+
+    // When the task was last marked completed (null while open); old completed tasks get archived
+    private Instant completedAt;
+
+    // Completed before completedAt was kept, so completedAt is not the real day (set by V6 only)
+    private boolean completionUndated;
+
     @Column(nullable = false)
     @NotBlank(message = "Title is required")
     @NotNull(message = "Title is required")
     @Size(min = 3, message = "Title must be at least 3 characters long")
+    @Size(max = 255, message = "Title must be at most 255 characters long")
     private String title;
 
     @NotNull(message = "Due date is required")
@@ -43,7 +63,8 @@ public class Task {
 
 
     //THE RELATIONSHIP
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: callers already hold the authenticated user, loading it again per task is wasted work
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @ToString.Exclude
     private User user;
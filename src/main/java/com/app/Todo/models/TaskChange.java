@@ -0,0 +1,8 @@
+package com.app.Todo.models;
+
+import java.time.LocalDate;
+
+// A task as returned by delta sync: its columns plus the change sequence of its last write
+public record TaskChange(Long id, String title, LocalDate dueDate, Status status, Priority priority,
+                         Category category, long changeSeq) {
+}
@@ -0,0 +1,5 @@
+package com.app.Todo.models;
+
+// One row of the per-user GROUP BY status, priority, category
+public record TaskCount(Status status, Priority priority, Category category, Long count) {
+}
@@ -0,0 +1,30 @@
+package com.app.Todo.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * What the edit form shows and posts back: the editable columns plus the version the form was
+ * opened at (so a stale save is rejected). Read as a projection, so opening the form never loads
+ * (or caches) the Task entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskForm {
+
+    private Long id;
+    private Long version;
+    private String title;
+
+    @DateTimeFormat(pattern = "yyyy-MM-dd")
+    private LocalDate dueDate;
+
+    private Status status;
+    private Priority priority;
+    private Category category;
+}
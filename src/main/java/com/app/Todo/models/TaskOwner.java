@@ -0,0 +1,5 @@
+package com.app.Todo.models;
+
+// A task id with its owner, for batch jobs that have to lock and notify users
+public record TaskOwner(Long id, Long userId) {
+}
@@ -0,0 +1,20 @@
+package com.app.Todo.models;
+
+import java.time.LocalDate;
+
+// Flat, read-only view of a task: just the columns, no User association
+public record TaskRow(Long id, String title, LocalDate dueDate, Status status, Priority priority, Category category) {
+
+    public static TaskRow of(Task task) {
+        return new TaskRow(task.getId(), task.getTitle(), task.getDueDate(),
+                task.getStatus(), task.getPriority(), task.getCategory());
+    }
+
+    public TaskRow withStatus(Status status) {
+        return new TaskRow(id, title, dueDate, status, priority, category);
+    }
+
+    public TaskRow withCategory(Category category) {
+        return new TaskRow(id, title, dueDate, status, priority, category);
+    }
+}
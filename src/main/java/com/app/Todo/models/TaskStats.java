@@ -0,0 +1,60 @@
+package com.app.Todo.models;
+
+import java.util.Arrays;
+
+/**
+ * Task counts for one user, broken down by status, priority and category.
+ * Indexed by enum ordinal so an update is three array writes.
+ */
+public class TaskStats {
+
+    private final long[] byStatus;
+    private final long[] byPriority;
+    private final long[] byCategory;
+
+    public TaskStats() {
+        this.byStatus = new long[Status.values().length];
+        this.byPriority = new long[Priority.values().length];
+        this.byCategory = new long[Category.values().length];
+    }
+
+    private TaskStats(TaskStats other) {
+        this.byStatus = Arrays.copyOf(other.byStatus, other.byStatus.length);
+        this.byPriority = Arrays.copyOf(other.byPriority, other.byPriority.length);
+        this.byCategory = Arrays.copyOf(other.byCategory, other.byCategory.length);
+    }
+
+    public void add(Status status, Priority priority, Category category, long delta) {
+        byStatus[status.ordinal()] += delta;
+        byPriority[priority.ordinal()] += delta;
+        byCategory[category.ordinal()] += delta;
+    }
+
+    public TaskStats copy() {
+        return new TaskStats(this);
+    }
+
+    public long getTotal() {
+        return Arrays.stream(byStatus).sum();
+    }
+
+    public long getCount(Status status) {
+        return byStatus[status.ordinal()];
+    }
+
+    public long getCount(Priority priority) {
+        return byPriority[priority.ordinal()];
+    }
+
+    public long getCount(Category category) {
+        return byCategory[category.ordinal()];
+    }
+
+    public int getProgressPercent() {
+        long total = getTotal();
+        if (total == 0) {
+            return 0;
+        }
+        return (int) ((getCount(Status.COMPLETED) * 100) / total);
+    }
+}
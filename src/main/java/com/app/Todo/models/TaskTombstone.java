@@ -0,0 +1,45 @@
+package com.app.Todo.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// Marks a deleted task for delta sync until compaction purges it
+@Entity
+@Getter
+@NoArgsConstructor
+public class TaskTombstone implements Persistable<Long> {
+
+    @Id
+    private Long taskId;
+
+    private Long userId;
+
+    private long changeSeq;
+
+    private Instant deletedAt;
+
+    public TaskTombstone(Long taskId, Long userId, long changeSeq, Instant deletedAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    @Override
+    public Long getId() {
+        return taskId;
+    }
+
+    // Task ids are never reused, so a tombstone is always new: saveAll inserts without a lookup first
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+}
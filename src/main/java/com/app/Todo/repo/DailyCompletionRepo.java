@@ -0,0 +1,59 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.DailyCompletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyCompletionRepo extends JpaRepository<DailyCompletion, DailyCompletion.Key> {
+
+    // A range of the primary key (user_id, rollup_date, ...): as many rows as days asked for, whatever the task count
+    List<DailyCompletion> findByUserIdAndRollupDateBetween(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Adds (sign = 1) or takes away (sign = -1) the given tasks' current contribution: one per
+     * completed task, live or archived, on the day of its completed_at (undated ones, see V6, are
+     * left out). Taking it away before a write and adding it back afterwards keeps the rollup
+     * exact whatever the write changed.
+     * <p>
+     * completed_at is a DATETIME written as the app's local time (no hibernate.jdbc.time_zone is
+     * set), so its date part is the day in the app's time zone, the same calendar LocalDate.now()
+     * gives for due dates and the overdue snapshots; the database session time zone plays no part.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into task_completion_daily (user_id, rollup_date, category, priority, completed) "
+            + "select user_id, cast(completed_at as date), category, priority, :sign * count(*) from ("
+            + "select user_id, completed_at, category, priority from task "
+            + "where user_id = :userId and id in (:ids) and completed_at is not null and not completion_undated "
+            + "union all "
+            + "select user_id, completed_at, category, priority from task_archive "
+            + "where user_id = :userId and id in (:ids) and completed_at is not null and not completion_undated) c "
+            + "group by user_id, cast(completed_at as date), category, priority "
+            + "on duplicate key update completed = completed + values(completed)",
+            nativeQuery = true)
+    int addCompletions(@Param("userId") Long userId, @Param("ids") Collection<Long> ids, @Param("sign") int sign);
+
+    // Backfill: the users' rows are deleted, then counted again from task and task_archive
+    @Modifying
+    @Query(value = "delete from task_completion_daily where user_id in (:userIds)", nativeQuery = true)
+    int deleteByUsers(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query(value = "insert into task_completion_daily (user_id, rollup_date, category, priority, completed) "
+            + "select user_id, cast(completed_at as date), category, priority, count(*) from ("
+            + "select user_id, completed_at, category, priority from task "
+            + "where user_id in (:userIds) and completed_at is not null and not completion_undated "
+            + "union all "
+            + "select user_id, completed_at, category, priority from task_archive "
+            + "where user_id in (:userIds) and completed_at is not null and not completion_undated) c "
+            + "group by user_id, cast(completed_at as date), category, priority",
+            nativeQuery = true)
+    int countByUsers(@Param("userIds") Collection<Long> userIds);
+}
@@ -0,0 +1,43 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.DailyOverdue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyOverdueRepo extends JpaRepository<DailyOverdue, DailyOverdue.Key> {
+
+    List<DailyOverdue> findByUserIdAndRollupDateBetween(Long userId, LocalDate from, LocalDate to);
+
+    // Served per user by idx_task_user_status_due; a rerun of the same day overwrites its counts
+    @Modifying
+    @Query(value = "insert into task_overdue_daily (user_id, rollup_date, overdue) "
+            + "select user_id, :day, count(*) from task "
+            + "where user_id in (:userIds) and status in ('NOT_STARTED', 'IN_PROGRESS') and due_date < :day "
+            + "group by user_id "
+            + "on duplicate key update overdue = values(overdue)",
+            nativeQuery = true)
+    int countOverdue(@Param("userIds") Collection<Long> userIds, @Param("day") LocalDate day);
+
+    @Query(value = "select count(*) > 0 from task_overdue_snapshot where snapshot_date = :day", nativeQuery = true)
+    boolean isSnapshotTaken(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query(value = "insert into task_overdue_snapshot (snapshot_date, taken_at) values (:day, :takenAt)",
+            nativeQuery = true)
+    int markSnapshotTaken(@Param("day") LocalDate day, @Param("takenAt") Instant takenAt);
+
+    // Days in the range that have counts; on those, a user without a row had nothing overdue
+    @Query(value = "select snapshot_date from task_overdue_snapshot where snapshot_date between :from and :to",
+            nativeQuery = true)
+    List<Date> findSnapshotDates(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
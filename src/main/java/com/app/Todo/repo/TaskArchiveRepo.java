@@ -0,0 +1,47 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.ArchivedTask;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+@Repository
+public interface TaskArchiveRepo extends JpaRepository<ArchivedTask, Long> {
+
+    // Same cursor settings as TaskRepo.streamRowsByUser, for exports that include archived tasks
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.app.Todo.models.TaskRow(t.id, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from ArchivedTask t where t.user = :user order by t.id")
+    Stream<TaskRow> streamRowsByUser(@Param("user") User user);
+
+    // Archival, step 1: copy the batch's rows that are still completed before the cutoff
+    // (the same condition TaskRepo.deleteArchived removes them by)
+    @Modifying
+    @Query(value = "insert into task_archive (id, category, due_date, priority, status, title, user_id, "
+            + "completed_at, completion_undated, archived_at) "
+            + "select id, category, due_date, priority, status, title, user_id, completed_at, completion_undated, "
+            + ":archivedAt "
+            + "from task where id in (:ids) and status = 'COMPLETED' and completed_at < :cutoff",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("cutoff") Instant cutoff,
+                      @Param("archivedAt") Instant archivedAt);
+
+    // Archived tasks are read-only, but can still be deleted; scoped to the owner like TaskRepo.deleteOwned
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ArchivedTask t where t.id = :id and t.user = :user")
+    int deleteOwned(@Param("id") Long id, @Param("user") User user);
+}
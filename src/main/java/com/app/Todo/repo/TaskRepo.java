@@ -1,35 +1,161 @@
 package com.app.Todo.repo;
 
-import com.app.Todo.models.Priority;
 import com.app.Todo.models.Category;
+import com.app.Todo.models.DueTask;
+import com.app.Todo.models.Priority;
 import com.app.Todo.models.Status;
 import com.app.Todo.models.Task;
+import com.app.Todo.models.TaskChange;
+import com.app.Todo.models.TaskCount;
+import com.app.Todo.models.TaskForm;
+import com.app.Todo.models.TaskOwner;
+import com.app.Todo.models.TaskRow;
 import com.app.Todo.models.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepo extends JpaRepository<Task,Long> {
+public interface TaskRepo extends JpaRepository<Task,Long>, JpaSpecificationExecutor<Task>, TaskRowQueries {
+
+    @Query("select new com.app.Todo.models.TaskRow(t.id, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from Task t where t.user = :user order by t.id")
+    List<TaskRow> findRowsByUser(@Param("user") User user);
+
+    @Query("select new com.app.Todo.models.TaskRow(t.id, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from Task t where t.user = :user and t.id in :ids")
+    List<TaskRow> findRowsByUserAndIdIn(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    // Ownership is part of the WHERE clause, so another user's id simply finds nothing
+    @Query("select new com.app.Todo.models.TaskForm(t.id, t.version, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from Task t where t.id = :id and t.user = :user")
+    Optional<TaskForm> findFormByIdAndUser(@Param("id") Long id, @Param("user") User user);
+
+    // Forward-only cursor for exports: rows are fetched from the DB in chunks of 500,
+    // never all at once (MySQL needs useCursorFetch=true on the JDBC URL for this)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.app.Todo.models.TaskRow(t.id, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from Task t where t.user = :user order by t.id")
+    Stream<TaskRow> streamRowsByUser(@Param("user") User user);
+
+    // Bulk operations: read (and lock) the affected rows once, then change them all in one statement
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.app.Todo.models.TaskRow(t.id, t.title, t.dueDate, t.status, t.priority, t.category) "
+            + "from Task t where t.user = :user and t.id in :ids")
+    List<TaskRow> findRowsForUpdate(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    // completedAt is the given time (now, or null when reopening) only for tasks whose status actually
+    // changes, which also dates an undated completion; both are set first, as MySQL applies SET clauses
+    // left to right
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.completedAt = case when t.status = :status then t.completedAt else :completedAt end, "
+            + "t.completionUndated = case when t.status = :status then t.completionUndated else false end, "
+            + "t.status = :status, t.version = t.version + 1, t.changeSeq = :seq "
+            + "where t.user = :user and t.id in :ids")
+    int updateStatus(@Param("user") User user, @Param("ids") Collection<Long> ids, @Param("status") Status status,
+                     @Param("completedAt") Instant completedAt, @Param("seq") long seq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.category = :category, t.version = t.version + 1, t.changeSeq = :seq "
+            + "where t.user = :user and t.id in :ids")
+    int updateCategory(@Param("user") User user, @Param("ids") Collection<Long> ids, @Param("category") Category category,
+                       @Param("seq") long seq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.user = :user and t.id in :ids")
+    int deleteAllByUser(@Param("user") User user, @Param("ids") Collection<Long> ids);
+
+    // Single-task writes scoped to the owner. 0 rows means the task is missing, not theirs or, when
+    // a version is given, was changed since that version was read
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    // (a new due date also re-arms its reminders, and completedAt follows the status as in updateStatus;
+    // all are set first, as MySQL applies SET clauses left to right)
+    @Query("update Task t set t.reminderLevel = case when t.dueDate = :dueDate then t.reminderLevel else 0 end, "
+            + "t.completedAt = case when t.status = :status then t.completedAt else :completedAt end, "
+            + "t.completionUndated = case when t.status = :status then t.completionUndated else false end, "
+            + "t.title = :title, t.dueDate = :dueDate, t.status = :status, t.priority = :priority, "
+            + "t.category = :category, t.version = t.version + 1, t.changeSeq = :seq "
+            + "where t.id = :id and t.user = :user and (:version is null or t.version = :version)")
+    int updateOwned(@Param("id") Long id, @Param("user") User user, @Param("version") Long version,
+                    @Param("title") String title, @Param("dueDate") LocalDate dueDate, @Param("status") Status status,
+                    @Param("priority") Priority priority, @Param("category") Category category,
+                    @Param("completedAt") Instant completedAt, @Param("seq") long seq);
 
-    List<Task> findByUser(User user);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Task t where t.id = :id and t.user = :user")
+    int deleteOwned(@Param("id") Long id, @Param("user") User user);
 
-    List<Task> findByUserAndStatus(User user, Status status);
+    // Delta sync: the user's tasks written after a given change, oldest change first
+    @Query("select new com.app.Todo.models.TaskChange(t.id, t.title, t.dueDate, t.status, t.priority, t.category, "
+            + "t.changeSeq) from Task t where t.user = :user and t.changeSeq > :since order by t.changeSeq, t.id")
+    List<TaskChange> findChangesSince(@Param("user") User user, @Param("since") long since, Limit limit);
 
-    List<Task> findByUserAndPriority(User user, Priority priority);
+    // Reminder scan: keyset batches of open tasks due in [dueFrom, dueBy] at one of the given reminder
+    // levels, served by idx_task_due_reminder (due_date, id, status, reminder_level). Both read one range of
+    // due_date in index order, check status and level on the index entry and stop at the limit, so there
+    // is no sort. The first batch starts at dueFrom, each next one right after the previous batch's last task.
+    @Query("select new com.app.Todo.models.DueTask(t.id, t.user.id, t.title, t.dueDate) from Task t "
+            + "where t.status in :statuses and t.reminderLevel in :levels "
+            + "and t.dueDate >= :dueFrom and t.dueDate <= :dueBy "
+            + "order by t.dueDate, t.id")
+    List<DueTask> findDueForReminder(@Param("statuses") Collection<Status> statuses,
+                                     @Param("levels") Collection<Integer> levels,
+                                     @Param("dueFrom") LocalDate dueFrom, @Param("dueBy") LocalDate dueBy,
+                                     Limit limit);
 
-    List<Task> findByUserAndCategory(User user, Category category);
+    @Query("select new com.app.Todo.models.DueTask(t.id, t.user.id, t.title, t.dueDate) from Task t "
+            + "where t.status in :statuses and t.reminderLevel in :levels "
+            + "and t.dueDate >= :afterDate and t.dueDate <= :dueBy and (t.dueDate > :afterDate or t.id > :afterId) "
+            + "order by t.dueDate, t.id")
+    List<DueTask> findDueForReminderAfter(@Param("statuses") Collection<Status> statuses,
+                                          @Param("levels") Collection<Integer> levels,
+                                          @Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId,
+                                          @Param("dueBy") LocalDate dueBy, Limit limit);
 
-    List<Task> findByUserOrderByDueDateAsc(User user);
+    @Modifying
+    @Query("update Task t set t.reminderLevel = :level where t.id in :ids and t.reminderLevel < :level")
+    int markReminded(@Param("ids") Collection<Long> ids, @Param("level") int level);
 
-    List<Task> findByUserOrderByStatusAsc(User user);
+    // Archival: the oldest tasks completed before the cutoff, served by idx_task_completed (status, completed_at).
+    // Each batch is moved out of the table, so the next one simply starts from the front again.
+    @Query("select new com.app.Todo.models.TaskOwner(t.id, t.user.id) from Task t "
+            + "where t.status = :status and t.completedAt < :cutoff order by t.completedAt, t.id")
+    List<TaskOwner> findCompletedBefore(@Param("status") Status status, @Param("cutoff") Instant cutoff, Limit limit);
 
-    List<Task> findByUserAndTitleContaining(User user, String keyword);
+    // The ones among ids still due for archiving (re-read once their owners are locked)
+    @Query("select t.id from Task t where t.id in :ids and t.status = :status and t.completedAt < :cutoff")
+    List<Long> findIdsCompletedBefore(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                                      @Param("cutoff") Instant cutoff);
 
-    long countByUserAndStatus(User user, Status status);
+    // Archival, step 2 (after TaskArchiveRepo.copyFromTasks): the same rows by the same condition
+    @Modifying
+    @Query("delete from Task t where t.id in :ids and t.status = :status and t.completedAt < :cutoff")
+    int deleteArchived(@Param("ids") Collection<Long> ids, @Param("status") Status status,
+                       @Param("cutoff") Instant cutoff);
 
-    long countByUser(User user);
+    // All dashboard counters for one user in a single round-trip
+    @Query("select new com.app.Todo.models.TaskCount(t.status, t.priority, t.category, count(t)) "
+            + "from Task t where t.user = :user group by t.status, t.priority, t.category")
+    List<TaskCount> countGroupedByUser(@Param("user") User user);
 
 
 }
@@ -0,0 +1,20 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.ArchivedTask;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.TaskRow;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+
+// Queries that select TaskRow columns directly instead of hydrating Task entities
+public interface TaskRowQueries {
+
+    /** One forward keyset page of the rows matching spec, in sort order (sort must end with a unique key). */
+    Window<TaskRow> scrollRows(Specification<Task> spec, Sort sort, int limit, KeysetScrollPosition position);
+
+    /** The same over the archive table. */
+    Window<TaskRow> scrollArchivedRows(Specification<ArchivedTask> spec, Sort sort, int limit,
+                                       KeysetScrollPosition position);
+}
@@ -0,0 +1,128 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.ArchivedTask;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.TaskRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.KeysetScrollSpecification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TaskRowQueriesImpl implements TaskRowQueries {
+
+    private final EntityManager entityManager;
+    private final JpaEntityInformation<Task, ?> taskInformation;
+    private final JpaEntityInformation<ArchivedTask, ?> archivedInformation;
+
+    TaskRowQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.taskInformation = JpaEntityInformationSupport.getEntityInformation(Task.class, entityManager);
+        this.archivedInformation = JpaEntityInformationSupport.getEntityInformation(ArchivedTask.class, entityManager);
+    }
+
+    @Override
+    public Window<TaskRow> scrollRows(Specification<Task> spec, Sort sort, int limit, KeysetScrollPosition position) {
+        return scroll(taskInformation, spec, sort, limit, position);
+    }
+
+    @Override
+    public Window<TaskRow> scrollArchivedRows(Specification<ArchivedTask> spec, Sort sort, int limit,
+                                              KeysetScrollPosition position) {
+        return scroll(archivedInformation, spec, sort, limit, position);
+    }
+
+    private <T> Window<TaskRow> scroll(JpaEntityInformation<T, ?> entityInformation, Specification<T> spec, Sort sort,
+                                       int limit, KeysetScrollPosition position) {
+        if (position.scrollsBackward()) {
+            throw new IllegalArgumentException("Only forward scrolling is supported");
+        }
+        // The keyset predicate and ORDER BY Spring Data would use, but selecting only the row columns and
+        // comparing priorities in declaration order (see after)
+        Sort keysetSort = KeysetScrollSpecification.createSort(position, sort, entityInformation);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskRow> query = cb.createQuery(TaskRow.class);
+        Root<T> root = query.from(entityInformation.getJavaType());
+        query.select(cb.construct(TaskRow.class, root.get("id"), root.get("title"), root.get("dueDate"),
+                root.get("status"), root.get("priority"), root.get("category")));
+        Predicate filter = spec.toPredicate(root, query, cb);
+        Predicate after = after(root, cb, keysetSort, position);
+        query.where(after == null ? filter : cb.and(filter, after));
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : keysetSort) {
+            Expression<?> key = root.get(order.getProperty());
+            orders.add(order.isAscending() ? cb.asc(key) : cb.desc(key));
+        }
+        query.orderBy(orders);
+
+        // One extra row tells us whether there is a next page
+        List<TaskRow> rows = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = rows.size() > limit;
+        List<TaskRow> page = hasNext ? rows.subList(0, limit) : rows;
+        return Window.from(page, i -> ScrollPosition.forward(keysOf(page.get(i), keysetSort)), hasNext);
+    }
+
+    // Rows strictly past the position in sort order: k1 > v1, or k1 = v1 and k2 > v2, and so on.
+    // The priority column sorts in declaration order (HIGH, MEDIUM, LOW, see V10), but compares with a
+    // value by name, so "past a priority" is the IN list of those after it, which the index can serve
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(Root<?> root, CriteriaBuilder cb, Sort sort, KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        if (position.isInitial() || sort.stream().anyMatch(order -> keys.get(order.getProperty()) == null)) {
+            // A cursor from another sort order starts again from the first page
+            return null;
+        }
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> tied = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Expression<Comparable> key = root.get(order.getProperty());
+            Comparable value = (Comparable) keys.get(order.getProperty());
+            List<Predicate> past = new ArrayList<>(tied);
+            if (value instanceof Priority priority) {
+                List<Priority> following = Arrays.stream(Priority.values())
+                        .filter(other -> order.isAscending() ? other.compareTo(priority) > 0 : other.compareTo(priority) < 0)
+                        .toList();
+                past.add(following.isEmpty() ? cb.disjunction() : key.in(following));
+            } else {
+                past.add(order.isAscending() ? cb.greaterThan(key, value) : cb.lessThan(key, value));
+            }
+            alternatives.add(cb.and(past.toArray(Predicate[]::new)));
+            tied.add(cb.equal(key, value));
+        }
+        return cb.or(alternatives.toArray(Predicate[]::new));
+    }
+
+    private static Map<String, Object> keysOf(TaskRow row, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), switch (order.getProperty()) {
+                case "id" -> row.id();
+                case "title" -> row.title();
+                case "dueDate" -> row.dueDate();
+                case "status" -> row.status();
+                case "priority" -> row.priority();
+                case "category" -> row.category();
+                default -> throw new IllegalArgumentException("Cannot sort task rows by " + order.getProperty());
+            });
+        }
+        return keys;
+    }
+}
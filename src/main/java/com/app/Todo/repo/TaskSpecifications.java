@@ -0,0 +1,44 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+
+/**
+ * Building blocks for task queries. Each one is a single WHERE predicate, so any
+ * combination of them still runs as one SQL statement. They only use attributes that Task and
+ * ArchivedTask share, so they apply to either table.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    // Always the leading predicate: every composite index on task starts with user_id
+    public static <T> Specification<T> ownedBy(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+
+    public static <T> Specification<T> hasStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static <T> Specification<T> hasPriority(Priority priority) {
+        return (root, query, cb) -> cb.equal(root.get("priority"), priority);
+    }
+
+    public static <T> Specification<T> hasCategory(Category category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    // Substring match on the title, for tables TaskSearchIndex does not cover (the archive)
+    public static <T> Specification<T> titleContains(String text) {
+        String pattern = "%" + text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("title")), pattern, '\\');
+    }
+}
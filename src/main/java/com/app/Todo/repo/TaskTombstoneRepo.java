@@ -0,0 +1,31 @@
+package com.app.Todo.repo;
+
+import com.app.Todo.models.TaskTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepo extends JpaRepository<TaskTombstone, Long> {
+
+    List<TaskTombstone> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(Long userId, long since, Limit limit);
+
+    // Compaction, step 1: remember per user the newest change whose tombstone is about to go
+    @Modifying
+    @Query(value = "update user u set sync_floor = (select max(t.change_seq) from task_tombstone t "
+            + "where t.user_id = u.id and t.deleted_at < :cutoff) "
+            + "where exists (select 1 from task_tombstone t where t.user_id = u.id and t.deleted_at < :cutoff)",
+            nativeQuery = true)
+    int raiseSyncFloors(@Param("cutoff") Instant cutoff);
+
+    // Compaction, step 2
+    @Modifying
+    @Query("delete from TaskTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -1,13 +1,57 @@
 package com.app.Todo.repo;
 
 import com.app.Todo.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserRepo extends JpaRepository<User, Long> {
 
     // Spring Security needs to find a user by their username to check login
     User findByUsername(String username);
 
+    // The current hash, checked against a cached user on every login (see UserCache)
+    @Query("select u.password from User u where u.id = :id")
+    String findPassword(@Param("id") Long id);
+
+    // Both served by the unique index on username
+    boolean existsByUsername(String username);
+
+    // Delta-sync bookkeeping lives in columns User does not map, so it never rides along in the session
+    @Modifying
+    @Query(value = "update user set change_seq = change_seq + 1 where id = :id", nativeQuery = true)
+    int incrementChangeSeq(@Param("id") Long id);
+
+    @Query(value = "select change_seq from user where id = :id", nativeQuery = true)
+    long findChangeSeq(@Param("id") Long id);
+
+    @Query(value = "select sync_floor from user where id = :id", nativeQuery = true)
+    long findSyncFloor(@Param("id") Long id);
+
+    // Keyset batches over all users, for jobs that work user by user
+    @Query("select u.id from User u where u.id > :after order by u.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Limit limit);
+
+    // Analytics backfill bookkeeping (see TaskRollups)
+    @Query(value = "select id from user where rollups_ready = false and id > :after order by id", nativeQuery = true)
+    List<Long> findIdsAwaitingRollups(@Param("after") Long after, Limit limit);
+
+    @Query(value = "select rollups_ready from user where id = :id", nativeQuery = true)
+    boolean findRollupsReady(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "update user set rollups_ready = true where id in (:ids)", nativeQuery = true)
+    int markRollupsReady(@Param("ids") Collection<Long> ids);
+
+    // Row locks on the users, in id order: the same lock every TaskService write takes first
+    @Query(value = "select id from user where id in (:ids) order by id for update", nativeQuery = true)
+    List<Long> lockAll(@Param("ids") Collection<Long> ids);
+
 }
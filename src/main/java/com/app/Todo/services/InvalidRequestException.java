@@ -0,0 +1,12 @@
+package com.app.Todo.services;
+
+/**
+ * A request the caller got wrong (an unknown field, a range too long to chart, ...). The message
+ * is written for the caller and is safe to return to them, unlike that of any other exception.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.Todo.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+// Stand-in sink: one log line per reminder (route the "reminders" logger to a file to keep them)
+public class LogReminderSink implements ReminderSink {
+
+    private static final Logger log = LoggerFactory.getLogger("reminders");
+
+    @Override
+    public void deliver(List<TaskReminder> reminders) {
+        for (TaskReminder reminder : reminders) {
+            log.info("{} user={} task={} due={} title=\"{}\"", reminder.kind(), reminder.task().userId(),
+                    reminder.task().id(), reminder.task().dueDate(), reminder.task().title());
+        }
+    }
+}
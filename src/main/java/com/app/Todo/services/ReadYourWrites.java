@@ -0,0 +1,54 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes on top of the read replica (see ReadReplicaConfig). A user who has just
+ * written is pinned to the primary for todo.datasource.replica.pin, long enough to cover
+ * replication lag, so their own next reads already see the change. Other users keep reading
+ * the replica. Pins start when the write commits and simply expire.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final Cache<Long, Boolean> pinned;
+
+    public ReadYourWrites(@Value("${todo.datasource.replica.pin:5s}") Duration window) {
+        this.pinned = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    // Called by every write path; takes effect once the surrounding transaction commits
+    public void recordWrite(User user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pinned.put(userId, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pinned.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    // Whether the user this request runs for has written within the window
+    public boolean currentUserPinned() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof User user
+                && pinned.getIfPresent(user.getId()) != null;
+    }
+}
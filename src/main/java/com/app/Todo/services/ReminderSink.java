@@ -0,0 +1,13 @@
+package com.app.Todo.services;
+
+import java.util.List;
+
+/**
+ * Where reminders go (mail, push, a queue...). The default just logs them; declare another
+ * ReminderSink bean to replace it. Receives one batch at a time; throwing leaves the batch
+ * unmarked, so it is offered again on the next run.
+ */
+public interface ReminderSink {
+
+    void deliver(List<TaskReminder> reminders);
+}
@@ -0,0 +1,105 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.DailyCompletion;
+import com.app.Todo.models.DailyOverdue;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.DailyCompletionRepo;
+import com.app.Todo.repo.DailyOverdueRepo;
+import com.app.Todo.repo.UserRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Productivity trends, read only from the rollups kept by {@link TaskRollups}: a query costs
+ * one row per day (per category and priority) in the range, however many tasks the user has.
+ */
+@Service
+public class TaskAnalyticsService {
+
+    // Longest range one request may ask for, which also bounds the rows it reads
+    public static final int MAX_DAYS = 731;
+
+    private final DailyCompletionRepo dailyCompletionRepo;
+    private final DailyOverdueRepo dailyOverdueRepo;
+    private final UserRepo userRepo;
+
+    public TaskAnalyticsService(DailyCompletionRepo dailyCompletionRepo, DailyOverdueRepo dailyOverdueRepo,
+                                UserRepo userRepo) {
+        this.dailyCompletionRepo = dailyCompletionRepo;
+        this.dailyOverdueRepo = dailyOverdueRepo;
+        this.userRepo = userRepo;
+    }
+
+    @Transactional(readOnly = true)
+    public TaskTrends getTrends(User user, LocalDate from, LocalDate to, TaskTrends.Granularity granularity) {
+        if (granularity == TaskTrends.Granularity.WEEK) {
+            from = from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new InvalidRequestException("At most " + MAX_DAYS + " days can be charted at once");
+        }
+
+        // Every bucket is listed, so days or weeks without completions chart as zero
+        TreeMap<LocalDate, Totals> buckets = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            buckets.computeIfAbsent(bucketStart(day, granularity), start -> new Totals());
+        }
+        for (DailyCompletion row : dailyCompletionRepo.findByUserIdAndRollupDateBetween(user.getId(), from, to)) {
+            Totals totals = buckets.get(bucketStart(row.getRollupDate(), granularity));
+            totals.completed += row.getCompleted();
+            totals.byCategory.merge(row.getCategory(), row.getCompleted(), Integer::sum);
+            totals.byPriority.merge(row.getPriority(), row.getCompleted(), Integer::sum);
+        }
+
+        Map<LocalDate, Integer> overdue = new HashMap<>();
+        for (DailyOverdue row : dailyOverdueRepo.findByUserIdAndRollupDateBetween(user.getId(), from, to)) {
+            overdue.put(row.getRollupDate(), row.getOverdue());
+        }
+        // In date order, so each bucket ends up with its last snapshot
+        dailyOverdueRepo.findSnapshotDates(from, to).stream().map(Date::toLocalDate).sorted().forEach(day ->
+                buckets.get(bucketStart(day, granularity)).overdue = overdue.getOrDefault(day, 0));
+
+        List<TaskTrends.Bucket> result = new ArrayList<>(buckets.size());
+        buckets.forEach((start, totals) -> result.add(new TaskTrends.Bucket(start, totals.completed,
+                totals.byCategory, totals.byPriority, totals.overdue)));
+        return new TaskTrends(from, to, granularity, userRepo.findRollupsReady(user.getId()), result);
+    }
+
+    private static LocalDate bucketStart(LocalDate day, TaskTrends.Granularity granularity) {
+        return granularity == TaskTrends.Granularity.WEEK
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day;
+    }
+
+    private static final class Totals {
+        int completed;
+        final Map<Category, Integer> byCategory = zeros(Category.class);
+        final Map<Priority, Integer> byPriority = zeros(Priority.class);
+        Integer overdue;
+    }
+
+    private static <E extends Enum<E>> Map<E, Integer> zeros(Class<E> type) {
+        Map<E, Integer> counts = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            counts.put(value, 0);
+        }
+        return counts;
+    }
+}
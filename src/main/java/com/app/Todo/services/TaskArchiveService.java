@@ -0,0 +1,124 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskOwner;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskArchiveRepo;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Moves tasks completed longer than todo.archive.completed-after ago from task to task_archive,
+ * so the working table and its indexes only hold what users still work on.
+ * <p>
+ * Each run takes the oldest completions in batches of {@link #BATCH_SIZE} (via idx_task_completed),
+ * one read-write transaction per batch, so the candidates come from the primary even with a
+ * replica configured. A batch first locks the owners' user rows, in user id order, which is the
+ * lock every TaskService write takes first: a concurrent reopen either committed already (and the
+ * task is skipped) or waits until the batch is done. The rows still due are then copied and
+ * deleted by the same condition, and only the owners that lost tasks take a change sequence. The
+ * run stops at the first batch that moves less than a full batch, so tasks reopened since they
+ * were picked never keep it going. The in-memory views, open
+ * dashboards and delta sync (through tombstones) drop them as for a delete, as sync only covers
+ * the working table. Archived tasks stay readable through {@link TaskService#findTasks}
+ * (TaskQuery.archived) and the export, and can still be deleted ({@link TaskService#deleteTask}).
+ */
+@Service
+public class TaskArchiveService {
+
+    public static final int BATCH_SIZE = 500;
+
+    private final TaskRepo taskRepo;
+    private final TaskArchiveRepo taskArchiveRepo;
+    private final UserRepo userRepo;
+    private final TaskChangeLog taskChangeLog;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskCache taskCache;
+    private final TaskEventBus taskEventBus;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate tx;
+    private final Duration completedAfter;
+
+    public TaskArchiveService(TaskRepo taskRepo, TaskArchiveRepo taskArchiveRepo, UserRepo userRepo,
+                              TaskChangeLog taskChangeLog, TaskStatsService taskStatsService,
+                              TaskSearchIndex taskSearchIndex, TaskCache taskCache, TaskEventBus taskEventBus,
+                              MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+                              @Value("${todo.archive.completed-after:90d}") Duration completedAfter) {
+        this.taskRepo = taskRepo;
+        this.taskArchiveRepo = taskArchiveRepo;
+        this.userRepo = userRepo;
+        this.taskChangeLog = taskChangeLog;
+        this.taskStatsService = taskStatsService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskCache = taskCache;
+        this.taskEventBus = taskEventBus;
+        this.meterRegistry = meterRegistry;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.completedAfter = completedAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.archive.interval:PT1H}", initialDelayString = "${todo.archive.interval:PT1H}")
+    public int archiveCompleted() {
+        Instant cutoff = Instant.now().minus(completedAfter);
+        int archived = 0;
+        while (true) {
+            int moved = tx.execute(status -> archive(cutoff));
+            meterRegistry.counter("todo.archive.moved").increment(moved);
+            archived += moved;
+            if (moved < BATCH_SIZE) {
+                return archived;
+            }
+        }
+    }
+
+    private int archive(Instant cutoff) {
+        List<TaskOwner> batch = taskRepo.findCompletedBefore(Status.COMPLETED, cutoff, Limit.of(BATCH_SIZE));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Map<Long, User> owners = new TreeMap<>();
+        for (TaskOwner task : batch) {
+            owners.computeIfAbsent(task.userId(), userRepo::getReferenceById);
+        }
+        userRepo.lockAll(owners.keySet());
+        List<Long> ids = taskRepo.findIdsCompletedBefore(batch.stream().map(TaskOwner::id).toList(),
+                Status.COMPLETED, cutoff);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        taskArchiveRepo.copyFromTasks(ids, cutoff, Instant.now());
+        int moved = taskRepo.deleteArchived(ids, Status.COMPLETED, cutoff);
+
+        Set<Long> movedIds = Set.copyOf(ids);
+        Map<Long, List<Long>> movedByOwner = batch.stream()
+                .filter(task -> movedIds.contains(task.id()))
+                .collect(Collectors.groupingBy(TaskOwner::userId,
+                        Collectors.mapping(TaskOwner::id, Collectors.toList())));
+        movedByOwner.forEach((userId, taskIds) -> {
+            User owner = owners.get(userId);
+            long seq = taskChangeLog.nextSequence(owner);
+            taskChangeLog.recordDeletes(owner, seq, taskIds);
+            taskStatsService.recordUnknownChange(owner);
+            taskSearchIndex.recordRemovals(owner, seq, taskIds);
+            taskCache.invalidate(owner);
+            taskEventBus.publish(owner, List.of(), List.of(), taskIds);
+        });
+        return moved;
+    }
+}
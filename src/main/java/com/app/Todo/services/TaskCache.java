@@ -0,0 +1,116 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for task reads, bounded by the number of tasks held and by a TTL.
+ * <p>
+ * Every key carries the owner's user id and current generation. A write bumps that user's
+ * generation after it commits, which makes all of their cached entries unreachable at once
+ * (they age out on their own) without touching anybody else's. Lookups always build the key
+ * from the requesting user, so one user's tasks can never be served to another.
+ * Hit/miss/eviction counts are published as the "cache.*" metrics with cache=tasks.
+ * A max weight of 0 turns caching off, so every read goes to the database.
+ */
+@Component
+public class TaskCache {
+
+    private final boolean enabled;
+    private final AsyncCache<Key, Object> cache;
+    private final Cache<Long, Long> generations;
+    private final AtomicLong nextGeneration = new AtomicLong();
+
+    public TaskCache(@Value("${todo.cache.max-weight:50000}") long maxWeight,
+                     @Value("${todo.cache.ttl:5m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.enabled = maxWeight > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, Object value) -> weigh(value))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        // Losing a generation is safe: the user just gets a fresh one and misses once
+        this.generations = Caffeine.newBuilder()
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tasks");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(User user, String shape, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Key key = new Key(user.getId(), generationOf(user.getId()), shape);
+        // Only an empty future is installed under the map's lock; the caller then loads outside it, so a
+        // slow query never blocks (or, on a virtual thread, pins) anyone else. Concurrent misses wait on it.
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> value = cache.get(key, (k, executor) -> loading);
+        if (value == loading) {
+            try {
+                loading.complete(loader.get());
+            } catch (RuntimeException | Error e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return (T) value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Called by every write path; takes effect once the surrounding transaction commits
+    public void invalidate(User user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generations.put(userId, nextGeneration.incrementAndGet());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                generations.put(userId, nextGeneration.incrementAndGet());
+            }
+        });
+    }
+
+    private long generationOf(Long userId) {
+        return generations.get(userId, id -> nextGeneration.incrementAndGet());
+    }
+
+    private static int weigh(Object value) {
+        if (value instanceof Window<?> window) {
+            return window.size() + 1;
+        }
+        if (value instanceof Collection<?> collection) {
+            return collection.size() + 1;
+        }
+        return 1;
+    }
+
+    private record Key(Long userId, long generation, String shape) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskChange;
+import com.app.Todo.models.TaskTombstone;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.TaskTombstoneRepo;
+import com.app.Todo.repo.UserRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Per-user change sequence behind delta sync (GET /tasks/changes).
+ * <p>
+ * Every task write takes the next sequence value for its user and stamps it on the tasks it
+ * touched; deletes leave a tombstone carrying it instead. A task therefore appears once, with
+ * its latest change, however often it was edited, so the log of live tasks compacts itself.
+ * Tombstones are purged after a retention period; the user's sync floor then records the
+ * newest purged change, and clients that synced before it are told to start over.
+ */
+@Service
+public class TaskChangeLog {
+
+    // Larger than any single write (BULK_LIMIT tasks), so every page contains at least one whole change
+    public static final int PAGE_SIZE = 2 * TaskService.BULK_LIMIT;
+
+    private final UserRepo userRepo;
+    private final TaskRepo taskRepo;
+    private final TaskTombstoneRepo tombstoneRepo;
+    private final TaskVersionStamps versionStamps;
+    private final ReadYourWrites readYourWrites;
+    private final Duration tombstoneRetention;
+
+    public TaskChangeLog(UserRepo userRepo, TaskRepo taskRepo, TaskTombstoneRepo tombstoneRepo,
+                         TaskVersionStamps versionStamps, ReadYourWrites readYourWrites,
+                         @Value("${todo.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.userRepo = userRepo;
+        this.taskRepo = taskRepo;
+        this.tombstoneRepo = tombstoneRepo;
+        this.versionStamps = versionStamps;
+        this.readYourWrites = readYourWrites;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    /**
+     * Next value of the user's change sequence, for the write in progress. The increment locks
+     * the user's row until commit, so one user's writes commit in sequence order and a client that
+     * has seen change N can never later be handed a smaller one. Call it before touching any task.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long nextSequence(User user) {
+        userRepo.incrementChangeSeq(user.getId());
+        long sequence = userRepo.findChangeSeq(user.getId());
+        versionStamps.recordWrite(user, sequence);
+        readYourWrites.recordWrite(user);
+        return sequence;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(User user, long sequence, Collection<Long> taskIds) {
+        Instant now = Instant.now();
+        tombstoneRepo.saveAll(taskIds.stream()
+                .map(id -> new TaskTombstone(id, user.getId(), sequence, now))
+                .toList());
+    }
+
+    /**
+     * Changes after since, oldest first, in pages of at most {@link #PAGE_SIZE}. A page never
+     * splits one change, so next always marks a point the client has fully applied. since = 0
+     * is a full sync: all tasks, no tombstones.
+     */
+    @Transactional(readOnly = true)
+    public TaskChanges changesSince(User user, long since) {
+        long floor = userRepo.findSyncFloor(user.getId());
+        if (since > 0 && since < floor) {
+            return new TaskChanges(since, 0, false, true, List.of(), List.of());
+        }
+        List<TaskChange> changed = taskRepo.findChangesSince(user, since, Limit.of(PAGE_SIZE + 1));
+        List<TaskTombstone> deleted = since == 0 ? List.of()
+                : tombstoneRepo.findByUserIdAndChangeSeqGreaterThanOrderByChangeSeq(user.getId(), since,
+                Limit.of(PAGE_SIZE + 1));
+
+        // Merge both by sequence; if there is more than a page, stop before the first change that does not fit
+        long cut = Long.MAX_VALUE;
+        if (changed.size() + deleted.size() > PAGE_SIZE) {
+            List<Long> sequences = new ArrayList<>(changed.size() + deleted.size());
+            changed.forEach(c -> sequences.add(c.changeSeq()));
+            deleted.forEach(t -> sequences.add(t.getChangeSeq()));
+            sequences.sort(null);
+            cut = sequences.get(PAGE_SIZE);
+        }
+        long limit = cut;
+        List<TaskChange> pageChanged = changed.stream().filter(c -> c.changeSeq() < limit).toList();
+        List<TaskTombstone> pageDeleted = deleted.stream().filter(t -> t.getChangeSeq() < limit).toList();
+
+        long next = since;
+        if (!pageChanged.isEmpty()) {
+            next = Math.max(next, pageChanged.get(pageChanged.size() - 1).changeSeq());
+        }
+        if (!pageDeleted.isEmpty()) {
+            next = Math.max(next, pageDeleted.get(pageDeleted.size() - 1).getChangeSeq());
+        }
+        // After the last page the client has every change up to the floor too (purged deletions
+        // included, as those tasks are simply absent), so a full sync must not leave it below the floor
+        if (cut == Long.MAX_VALUE) {
+            next = Math.max(next, floor);
+        }
+        return new TaskChanges(since, next, cut != Long.MAX_VALUE, false, pageChanged,
+                pageDeleted.stream().map(TaskTombstone::getTaskId).toList());
+    }
+
+    // Keeps tombstones bounded: old ones go, and the users they belonged to get a higher sync floor
+    @Scheduled(fixedDelayString = "${todo.sync.compaction-interval:PT1H}", initialDelayString = "${todo.sync.compaction-interval:PT1H}")
+    @Transactional
+    public int compact() {
+        Instant cutoff = Instant.now().minus(tombstoneRetention);
+        tombstoneRepo.raiseSyncFloors(cutoff);
+        return tombstoneRepo.deleteOlderThan(cutoff);
+    }
+}
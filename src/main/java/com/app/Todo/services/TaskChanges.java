@@ -0,0 +1,14 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskChange;
+
+import java.util.List;
+
+/**
+ * One page of delta sync. Apply changed and deleted, then ask again with since = next
+ * (straight away if hasMore). reset means the client is too far behind: it should drop what
+ * it has and sync again from 0.
+ */
+public record TaskChanges(long since, long next, boolean hasMore, boolean reset,
+                          List<TaskChange> changed, List<Long> deleted) {
+}
@@ -0,0 +1,82 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Turns a keyset position (the sort-key values of the last task on a page, e.g. dueDate + id)
+ * or a search-result offset into an opaque URL-safe token and back again.
+ */
+public final class TaskCursor {
+
+    // Relevance-ranked search results page by position in the ranking instead
+    private static final String OFFSET_KEY = "offset";
+
+    private TaskCursor() {
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (position instanceof OffsetScrollPosition offset && !offset.isInitial()) {
+            return base64(OFFSET_KEY + "=" + offset.getOffset());
+        }
+        if (!(position instanceof KeysetScrollPosition keyset) || keyset.isInitial()) {
+            return null;
+        }
+        StringJoiner joiner = new StringJoiner("&");
+        keyset.getKeys().forEach((key, value) ->
+                joiner.add(key + "=" + URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8)));
+        return base64(joiner.toString());
+    }
+
+    // A missing or tampered cursor simply starts again from the first page
+    public static ScrollPosition decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(OFFSET_KEY + "=")) {
+                return ScrollPosition.offset(Long.parseLong(raw.substring(OFFSET_KEY.length() + 1)));
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = pair.substring(0, eq);
+                String value = URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                keys.put(key, parseValue(key, value));
+            }
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            return ScrollPosition.keyset();
+        }
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object parseValue(String key, String value) {
+        return switch (key) {
+            case "id" -> Long.valueOf(value);
+            case "dueDate" -> LocalDate.parse(value);
+            case "status" -> Status.valueOf(value);
+            case "priority" -> Priority.valueOf(value);
+            case "category" -> Category.valueOf(value);
+            case "title" -> value;
+            default -> throw new IllegalArgumentException("Unknown cursor key: " + key);
+        };
+    }
+}
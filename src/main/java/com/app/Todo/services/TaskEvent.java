@@ -0,0 +1,9 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskRow;
+
+import java.util.List;
+
+// One committed change to a user's tasks, as pushed to their open event streams
+public record TaskEvent(long sequence, List<TaskRow> created, List<TaskRow> updated, List<Long> deleted) {
+}
@@ -0,0 +1,401 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process fan-out of committed task changes to each user's open event streams.
+ * <p>
+ * Each user gets a channel holding their listeners and their last {@link #REPLAY_SIZE}
+ * events. A client that reconnects with the id of the last event it saw is sent what it
+ * missed; if that is no longer held (or the id is from before a restart, or from a channel
+ * dropped since) it is told to reset and reload instead. Listeners are plain callbacks, not threads, so idle streams cost only
+ * their connection.
+ * <p>
+ * Nothing is written to a client while a lock is held: under the channel's lock, events (in
+ * order per user) and heartbeats are only queued on each listener's outbox, at most
+ * todo.events.queue deep, and a virtual thread per busy outbox writes them out. So a committing
+ * request never waits for a client, and a stalled one delays nobody else. A listener whose
+ * queue overflows, or whose write has not finished after todo.events.send-timeout, is dropped
+ * and its stream closed; the browser reconnects and resumes (or resets) from its last event id.
+ * <p>
+ * One scheduler thread queues heartbeats, drops stalled listeners and drops channels nobody
+ * has listened to for a while.
+ */
+@Component
+public class TaskEventBus implements AutoCloseable {
+
+    private static final int REPLAY_SIZE = 100;
+
+    public interface Listener {
+        void onEvent(String id, TaskEvent event) throws IOException;
+
+        // The changes since the client's last event are gone: it should reload everything
+        void onReset() throws IOException;
+
+        void onHeartbeat() throws IOException;
+
+        // Dropped for being too slow: end the stream so the client reconnects
+        void close();
+    }
+
+    private interface Send {
+        void to(Listener listener) throws IOException;
+    }
+
+    // Event ids are "<epoch>-<generation>-<sequence>": a new channel starts its sequence again, so ids
+    // handed out before a restart or by a channel since dropped are never mistaken for its own
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generations = new AtomicLong();
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final long retainNanos;
+    private final int queueSize;
+    private final long sendTimeoutNanos;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler;
+
+    public TaskEventBus(@Value("${todo.events.heartbeat:20s}") Duration heartbeat,
+                        @Value("${todo.events.retain:5m}") Duration retain,
+                        @Value("${todo.events.queue:64}") int queueSize,
+                        @Value("${todo.events.send-timeout:10s}") Duration sendTimeout) {
+        this.retainNanos = retain.toNanos();
+        this.queueSize = queueSize;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sweep, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // Id of the user's newest event; a page rendered now can stream from here without missing anything
+    public String currentEventId(User user) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(user.getId(), id -> newChannel());
+            channel.lock.lock();
+            try {
+                if (!channel.closed) {
+                    channel.lastActive = System.nanoTime();
+                    return channel.eventId(channel.lastSequence);
+                }
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a listener for the user's events, first replaying everything after lastEventId
+     * (if given). Returns the action that removes it again.
+     */
+    public Runnable subscribe(User user, String lastEventId, Listener listener) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(user.getId(), id -> newChannel());
+            channel.lock.lock();
+            try {
+                if (channel.closed) {
+                    continue;
+                }
+                Outbox outbox = new Outbox(channel, listener);
+                if (lastEventId != null && !lastEventId.isBlank()) {
+                    replay(channel, lastEventId, outbox);
+                }
+                channel.listeners.add(outbox);
+                channel.lastActive = System.nanoTime();
+                return () -> {
+                    channel.lock.lock();
+                    try {
+                        channel.listeners.remove(outbox);
+                        channel.lastActive = System.nanoTime();
+                    } finally {
+                        channel.lock.unlock();
+                    }
+                };
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    // Called inside the writing transaction; listeners hear about it only once it commits
+    public void publish(User user, List<TaskRow> created, List<TaskRow> updated, List<Long> deleted) {
+        if (created.isEmpty() && updated.isEmpty() && deleted.isEmpty()) {
+            return;
+        }
+        Runnable deliver = () -> deliver(user.getId(), created, updated, deleted);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver.run();
+            }
+        });
+    }
+
+    private void deliver(Long userId, List<TaskRow> created, List<TaskRow> updated, List<Long> deleted) {
+        // No channel: nobody is listening or could resume, so there is nothing to keep
+        Channel channel = channels.get(userId);
+        if (channel == null) {
+            return;
+        }
+        channel.lock.lock();
+        try {
+            if (channel.closed) {
+                return;
+            }
+            TaskEvent event = new TaskEvent(++channel.lastSequence, created, updated, deleted);
+            channel.replay.addLast(event);
+            if (channel.replay.size() > REPLAY_SIZE) {
+                channel.replay.removeFirst();
+            }
+            String id = channel.eventId(event.sequence());
+            for (Outbox outbox : new ArrayList<>(channel.listeners)) {
+                outbox.offer(listener -> listener.onEvent(id, event));
+            }
+        } finally {
+            channel.lock.unlock();
+        }
+    }
+
+    private void replay(Channel channel, String lastEventId, Outbox outbox) {
+        long seen = channel.sequenceOf(lastEventId);
+        TaskEvent oldest = channel.replay.peekFirst();
+        boolean missedUnknown = seen < 0 || seen > channel.lastSequence
+                || (seen < channel.lastSequence && (oldest == null || oldest.sequence() > seen + 1));
+        long missed = channel.lastSequence - Math.max(seen, 0);
+        // More than the outbox holds would only overflow it: reloading is quicker anyway
+        if (missedUnknown || missed >= queueSize) {
+            outbox.offer(Listener::onReset);
+            return;
+        }
+        for (TaskEvent event : channel.replay) {
+            if (event.sequence() > seen) {
+                String id = channel.eventId(event.sequence());
+                outbox.offer(listener -> listener.onEvent(id, event));
+            }
+        }
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Map.Entry<Long, Channel> entry : channels.entrySet()) {
+            Channel channel = entry.getValue();
+            channel.lock.lock();
+            try {
+                if (channel.listeners.isEmpty()) {
+                    if (now - channel.lastActive > retainNanos) {
+                        channel.closed = true;
+                        channels.remove(entry.getKey(), channel);
+                    }
+                    continue;
+                }
+                for (Outbox outbox : new ArrayList<>(channel.listeners)) {
+                    if (outbox.stalled(now)) {
+                        outbox.drop();
+                    } else {
+                        outbox.offerHeartbeat();
+                    }
+                }
+                channel.lastActive = now;
+            } finally {
+                channel.lock.unlock();
+            }
+        }
+    }
+
+    private Channel newChannel() {
+        return new Channel(epoch + "-" + generations.incrementAndGet() + "-");
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    private static final class Channel {
+        final String idPrefix;
+        final ReentrantLock lock = new ReentrantLock();
+        final List<Outbox> listeners = new ArrayList<>();
+        final ArrayDeque<TaskEvent> replay = new ArrayDeque<>();
+        long lastSequence;
+        long lastActive = System.nanoTime();
+        boolean closed;
+
+        Channel(String idPrefix) {
+            this.idPrefix = idPrefix;
+        }
+
+        String eventId(long sequence) {
+            return idPrefix + sequence;
+        }
+
+        // -1 if the id is malformed or from another run or channel
+        long sequenceOf(String eventId) {
+            if (!eventId.startsWith(idPrefix)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(eventId.substring(idPrefix.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * One listener's pending writes, in order. offer never blocks: it queues the write and, if no
+     * writer is running for this listener, starts one. Everything but the writer is called under
+     * the channel's lock; the writer takes that lock only to remove a listener whose write failed.
+     */
+    private final class Outbox {
+        final Channel channel;
+        final Listener listener;
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayDeque<Send> pending = new ArrayDeque<>();
+        boolean writing;
+        boolean dropped;
+        // When the write in progress started (0 while idle)
+        long writeStarted;
+
+        Outbox(Channel channel, Listener listener) {
+            this.channel = channel;
+            this.listener = listener;
+        }
+
+        void offer(Send send) {
+            lock.lock();
+            try {
+                if (dropped) {
+                    return;
+                }
+                if (pending.size() >= queueSize) {
+                    // The client reads slower than events arrive; it resumes from its last event id
+                    channel.listeners.remove(this);
+                    dropLocked();
+                    return;
+                }
+                pending.addLast(send);
+                if (!writing) {
+                    writing = true;
+                    writers.execute(this::drain);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // A heartbeat only keeps an idle connection open, so one is never queued behind other writes
+        void offerHeartbeat() {
+            lock.lock();
+            try {
+                if (writing) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            offer(Listener::onHeartbeat);
+        }
+
+        boolean stalled(long now) {
+            lock.lock();
+            try {
+                return writeStarted != 0 && now - writeStarted > sendTimeoutNanos;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void drop() {
+            channel.listeners.remove(this);
+            lock.lock();
+            try {
+                dropLocked();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void dropLocked() {
+            if (dropped) {
+                return;
+            }
+            dropped = true;
+            pending.clear();
+            // Closing may wait for the stalled write, so it happens on a writer thread too
+            writers.execute(() -> {
+                try {
+                    listener.close();
+                } catch (RuntimeException e) {
+                    // The connection is gone either way
+                }
+            });
+        }
+
+        private void drain() {
+            while (true) {
+                Send send;
+                lock.lock();
+                try {
+                    send = dropped ? null : pending.pollFirst();
+                    if (send == null) {
+                        writing = false;
+                        writeStarted = 0;
+                        return;
+                    }
+                    writeStarted = System.nanoTime();
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    send.to(listener);
+                } catch (IOException | RuntimeException e) {
+                    failed();
+                    return;
+                }
+            }
+        }
+
+        // The listener closed its stream on the failed write; stop queueing for it
+        private void failed() {
+            channel.lock.lock();
+            try {
+                channel.listeners.remove(this);
+            } finally {
+                channel.lock.unlock();
+            }
+            lock.lock();
+            try {
+                dropped = true;
+                writing = false;
+                writeStarted = 0;
+                pending.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
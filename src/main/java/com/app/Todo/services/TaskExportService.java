@@ -0,0 +1,164 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskArchiveRepo;
+import com.app.Todo.repo.TaskRepo;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Writes a user's tasks straight from a DB cursor to the response stream.
+ * Only one row and one write buffer are held at a time, however many tasks there are.
+ */
+@Service
+public class TaskExportService {
+
+    public static final String CSV_HEADER = "ID,Title,Due Date,Status,Priority,Category";
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    // Receives rows one at a time as they come off the cursor
+    public interface RowWriter {
+        void write(TaskRow row) throws IOException;
+    }
+
+    private final TaskRepo taskRepo;
+    private final TaskArchiveRepo taskArchiveRepo;
+
+    public TaskExportService(TaskRepo taskRepo, TaskArchiveRepo taskArchiveRepo) {
+        this.taskRepo = taskRepo;
+        this.taskArchiveRepo = taskArchiveRepo;
+    }
+
+    // The transaction keeps the cursor open while rows are written out; archived tasks, if wanted, follow the live ones
+    @Transactional(readOnly = true)
+    public void exportTasks(User user, TaskExportFormat format, boolean includeArchived, OutputStream out)
+            throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == TaskExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        forEachRow(user, includeArchived, row -> {
+            if (format == TaskExportFormat.CSV) {
+                writeCsvRow(row, writer);
+            } else {
+                writeJsonLine(row, writer);
+            }
+        });
+        writer.flush();
+    }
+
+    // Same cursor walk for other serializers (e.g. the JSON API); live rows first, then archived ones if wanted
+    @Transactional(readOnly = true)
+    public void forEachRow(User user, boolean includeArchived, RowWriter rowWriter) throws IOException {
+        try (Stream<TaskRow> rows = taskRepo.streamRowsByUser(user)) {
+            writeRows(rows, rowWriter);
+        }
+        if (includeArchived) {
+            try (Stream<TaskRow> rows = taskArchiveRepo.streamRowsByUser(user)) {
+                writeRows(rows, rowWriter);
+            }
+        }
+    }
+
+    private void writeRows(Stream<TaskRow> rows, RowWriter rowWriter) throws IOException {
+        try {
+            rows.forEach(row -> {
+                try {
+                    rowWriter.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsvRow(TaskRow row, Writer writer) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writeCsvField(row.title(), writer);
+        writer.write(',');
+        writer.write(String.valueOf(row.dueDate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.status()));
+        writer.write(',');
+        writer.write(String.valueOf(row.priority()));
+        writer.write(',');
+        writer.write(String.valueOf(row.category()));
+        writer.write('\n');
+    }
+
+    // RFC 4180: quote fields containing a comma, quote or line break, and double any quotes
+    private void writeCsvField(String value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private void writeJsonLine(TaskRow row, Writer writer) throws IOException {
+        writer.write("{\"id\":");
+        writer.write(String.valueOf(row.id()));
+        writer.write(",\"title\":");
+        writeJsonString(row.title(), writer);
+        writer.write(",\"dueDate\":");
+        writeJsonString(row.dueDate() == null ? null : row.dueDate().toString(), writer);
+        writer.write(",\"status\":");
+        writeJsonString(row.status() == null ? null : row.status().name(), writer);
+        writer.write(",\"priority\":");
+        writeJsonString(row.priority() == null ? null : row.priority().name(), writer);
+        writer.write(",\"category\":");
+        writeJsonString(row.category() == null ? null : row.category().name(), writer);
+        writer.write("}\n");
+    }
+
+    private void writeJsonString(String value, Writer writer) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+}
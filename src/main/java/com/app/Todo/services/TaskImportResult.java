@@ -0,0 +1,40 @@
+package com.app.Todo.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Outcome of one import: how many rows were saved, how many were skipped, and why (first few only)
+public class TaskImportResult {
+
+    private final int maxReportedErrors;
+    private final List<String> errors = new ArrayList<>();
+    private int importedCount;
+    private int failedCount;
+
+    TaskImportResult(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    void imported(int count) {
+        importedCount += count;
+    }
+
+    void fail(int row, String message) {
+        failedCount++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add("Row " + row + ": " + message);
+        }
+    }
+
+    public int getImportedCount() {
+        return importedCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,205 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports tasks from the same CSV layout /tasks/export writes, or from JSON Lines.
+ * <p>
+ * The upload is parsed one row at a time. Valid rows are collected into chunks of
+ * {@link #CHUNK_SIZE} and each chunk is written in its own transaction before more input is
+ * read, so memory stays flat however large the file is. Invalid rows are skipped and reported.
+ */
+@Service
+public class TaskImportService {
+
+    public static final int CHUNK_SIZE = 500;
+
+    // Only the first few errors are kept for the report; the rest are just counted
+    private static final int MAX_REPORTED_ERRORS = 50;
+
+    private final TaskService taskService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public TaskImportService(TaskService taskService, Validator validator, ObjectMapper objectMapper) {
+        this.taskService = taskService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    public TaskImportResult importTasks(InputStream in, TaskExportFormat format, User user) throws IOException {
+        TaskImportResult result = new TaskImportResult(MAX_REPORTED_ERRORS);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Task> chunk = new ArrayList<>(CHUNK_SIZE);
+        List<Integer> chunkRows = new ArrayList<>(CHUNK_SIZE);
+
+        if (format == TaskExportFormat.CSV) {
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                return result;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.containsKey("title") || !columns.containsKey("due date")) {
+                result.fail(1, "Header must contain at least the Title and Due Date columns");
+                return result;
+            }
+            int row = 1;
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                row++;
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                addRow(row, field(record, columns, "title"), field(record, columns, "due date"),
+                        field(record, columns, "status"), field(record, columns, "priority"),
+                        field(record, columns, "category"), chunk, chunkRows, result, user);
+            }
+        } else {
+            int row = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (IOException e) {
+                    result.fail(row, "Not valid JSON");
+                    continue;
+                }
+                addRow(row, text(node, "title"), text(node, "dueDate"), text(node, "status"),
+                        text(node, "priority"), text(node, "category"), chunk, chunkRows, result, user);
+            }
+        }
+        flush(chunk, chunkRows, result, user);
+        return result;
+    }
+
+    private void addRow(int row, String title, String dueDate, String status, String priority, String category,
+                        List<Task> chunk, List<Integer> chunkRows, TaskImportResult result, User user) {
+        Task task = new Task();
+        try {
+            task.setTitle(title == null ? null : title.trim());
+            task.setDueDate(blank(dueDate) ? null : LocalDate.parse(dueDate.trim()));
+            if (!blank(status)) {
+                task.setStatus(Status.valueOf(status.trim().toUpperCase(Locale.ROOT)));
+            }
+            if (!blank(priority)) {
+                task.setPriority(Priority.valueOf(priority.trim().toUpperCase(Locale.ROOT)));
+            }
+            if (!blank(category)) {
+                task.setCategory(Category.valueOf(category.trim().toUpperCase(Locale.ROOT)));
+            }
+        } catch (RuntimeException e) {
+            result.fail(row, "Invalid date or status/priority/category value");
+            return;
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            result.fail(row, violations.iterator().next().getMessage());
+            return;
+        }
+        chunk.add(task);
+        chunkRows.add(row);
+        if (chunk.size() >= CHUNK_SIZE) {
+            flush(chunk, chunkRows, result, user);
+        }
+    }
+
+    // Writes one chunk in its own transaction; the reader waits until it is done
+    private void flush(List<Task> chunk, List<Integer> chunkRows, TaskImportResult result, User user) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            result.imported(taskService.createTasks(new ArrayList<>(chunk), user));
+        } catch (DataAccessException e) {
+            for (Integer row : chunkRows) {
+                result.fail(row, "Could not be saved");
+            }
+        }
+        chunk.clear();
+        chunkRows.clear();
+    }
+
+    // One RFC 4180 record (quoted fields may contain commas, quotes and line breaks); null at end of input
+    static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= record.size() ? null : record.get(index);
+    }
+
+    private static String text(JsonNode node, String name) {
+        JsonNode value = node.get(name);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean blank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskSpecifications;
+import lombok.Data;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Any combination of the dashboard filters plus an ordered list of sort keys.
+ * Sort keys come from the "sort" request parameter, e.g. "date", "status,date" or "-priority,date"
+ * (a leading '-' means descending). Priorities sort by urgency, HIGH first, rather than by name.
+ * Keyword searches are ordered by relevance instead.
+ * With archived set, the same filters and sort apply to the user's archived tasks instead.
+ */
+@Data
+public class TaskQuery {
+
+    private Status status;
+    private Priority priority;
+    private Category category;
+    private String keyword;
+    private String sort;
+    private boolean archived;
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.isBlank();
+    }
+
+    // The keyword is not part of the SQL: TaskSearchIndex resolves it (works on Task and ArchivedTask)
+    public <T> Specification<T> toSpecification(User user) {
+        Specification<T> spec = TaskSpecifications.ownedBy(user);
+        if (status != null) {
+            spec = spec.and(TaskSpecifications.hasStatus(status));
+        }
+        if (priority != null) {
+            spec = spec.and(TaskSpecifications.hasPriority(priority));
+        }
+        if (category != null) {
+            spec = spec.and(TaskSpecifications.hasCategory(category));
+        }
+        return spec;
+    }
+
+    // The id is always the last key so every row has a unique, stable keyset position
+    public Sort toSort() {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sort != null) {
+            for (String key : sort.split(",")) {
+                key = key.trim();
+                if (key.isEmpty()) {
+                    continue;
+                }
+                boolean descending = key.startsWith("-");
+                String property = toProperty(descending ? key.substring(1) : key);
+                if (property != null && orders.stream().noneMatch(o -> o.getProperty().equals(property))) {
+                    orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+                }
+            }
+        }
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    private static String toProperty(String key) {
+        return switch (key) {
+            case "date", "dueDate" -> "dueDate";
+            case "status" -> "status";
+            case "priority" -> "priority";
+            case "category" -> "category";
+            case "title" -> "title";
+            default -> null;
+        };
+    }
+}
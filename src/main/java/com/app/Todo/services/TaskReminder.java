@@ -0,0 +1,19 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.DueTask;
+
+// One reminder to deliver: a task that is about to be due, or already overdue
+public record TaskReminder(Kind kind, DueTask task) {
+
+    public enum Kind {
+        DUE_SOON(1),
+        OVERDUE(2);
+
+        // Value stored in task.reminder_level once this reminder has gone out
+        final int level;
+
+        Kind(int level) {
+            this.level = level;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.DueTask;
+import com.app.Todo.models.Status;
+import com.app.Todo.repo.TaskRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Sends due-soon and overdue reminders for open tasks.
+ * <p>
+ * Each run walks the tasks that need a reminder in keyset batches of {@link #BATCH_SIZE}, hands
+ * each batch to the {@link ReminderSink} and then records it in task.reminder_level. The scan
+ * reads idx_task_due_reminder (due_date, id, status, reminder_level) in order over the due dates in
+ * question, so not yet due tasks are never read and nothing is sorted; completed and already
+ * reminded tasks in that range are skipped on the index entry alone. Batches are read on the
+ * primary, as a replica that lags would hand back tasks the previous batch just marked.
+ * Delivery is at least once: a batch whose marking fails is delivered again next run.
+ */
+@Service
+public class TaskReminderService {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final List<Status> OPEN = List.of(Status.NOT_STARTED, Status.IN_PROGRESS);
+
+    // The earliest date MySQL's DATE supports: overdue reminders reach back that far
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+
+    private final TaskRepo taskRepo;
+    private final ReminderSink sink;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate tx;
+    private final int dueSoonDays;
+
+    public TaskReminderService(TaskRepo taskRepo, ReminderSink sink, MeterRegistry meterRegistry,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${todo.reminders.due-soon-days:1}") int dueSoonDays) {
+        this.taskRepo = taskRepo;
+        this.sink = sink;
+        this.meterRegistry = meterRegistry;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.dueSoonDays = dueSoonDays;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.reminders.interval:PT15M}", initialDelayString = "${todo.reminders.interval:PT15M}")
+    public int sendReminders() {
+        LocalDate today = LocalDate.now();
+        // Overdue first, so a task that slipped past its date while unreminded gets only the overdue one
+        int sent = scan(TaskReminder.Kind.OVERDUE, EARLIEST, today.minusDays(1));
+        sent += scan(TaskReminder.Kind.DUE_SOON, today, today.plusDays(dueSoonDays));
+        return sent;
+    }
+
+    private int scan(TaskReminder.Kind kind, LocalDate dueFrom, LocalDate dueBy) {
+        // The levels a task can have before this reminder
+        List<Integer> levelsBelow = IntStream.range(0, kind.level).boxed().toList();
+        int sent = 0;
+        DueTask last = null;
+        while (true) {
+            DueTask after = last;
+            List<DueTask> batch = tx.execute(status -> after == null
+                    ? taskRepo.findDueForReminder(OPEN, levelsBelow, dueFrom, dueBy, Limit.of(BATCH_SIZE))
+                    : taskRepo.findDueForReminderAfter(OPEN, levelsBelow, after.dueDate(), after.id(), dueBy,
+                            Limit.of(BATCH_SIZE)));
+            if (batch.isEmpty()) {
+                return sent;
+            }
+            sink.deliver(batch.stream().map(task -> new TaskReminder(kind, task)).toList());
+            List<Long> ids = batch.stream().map(DueTask::id).toList();
+            tx.executeWithoutResult(status -> taskRepo.markReminded(ids, kind.level));
+            meterRegistry.counter("todo.reminders.sent", "kind", kind.name()).increment(batch.size());
+            sent += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                return sent;
+            }
+            last = batch.get(batch.size() - 1);
+        }
+    }
+}
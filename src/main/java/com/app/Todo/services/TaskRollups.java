@@ -0,0 +1,117 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import com.app.Todo.repo.DailyCompletionRepo;
+import com.app.Todo.repo.DailyOverdueRepo;
+import com.app.Todo.repo.UserRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the analytics rollups that {@link TaskAnalyticsService} reads.
+ * <p>
+ * task_completion_daily counts each completed task (live or archived) on the day it was
+ * completed. TaskService keeps it exact inside every write: after taking the user's lock it
+ * removes the touched tasks' contribution, makes its change and adds the new contribution back.
+ * It reads the rows it changes first, so it only does so for tasks moving in or out of COMPLETED
+ * and completed ones changing category or priority. So it always equals a count from scratch of
+ * the tasks there are now: reopening a task takes its completion out, and so does deleting it,
+ * which is intended (a deleted task is no longer the user's work to chart). Archival moves rows
+ * without changing them, so it leaves the rollup alone. Tasks completed before completion times
+ * were kept are not counted at all, rather than all on the day V6 ran (completion_undated).
+ * Users from before the rollups existed are counted from scratch by {@link #backfill}, in batches of {@link #BATCH_SIZE} users holding their locks, which keeps it
+ * in step with concurrent writes.
+ * <p>
+ * task_overdue_daily is a snapshot, as "overdue" changes with the date and not only with writes:
+ * the first {@link #snapshotOverdue} run of each day counts every user's open past-due tasks.
+ */
+@Service
+public class TaskRollups {
+
+    public static final int BATCH_SIZE = 500;
+
+    private final DailyCompletionRepo dailyCompletionRepo;
+    private final DailyOverdueRepo dailyOverdueRepo;
+    private final UserRepo userRepo;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate tx;
+
+    public TaskRollups(DailyCompletionRepo dailyCompletionRepo, DailyOverdueRepo dailyOverdueRepo, UserRepo userRepo,
+                       MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.dailyCompletionRepo = dailyCompletionRepo;
+        this.dailyOverdueRepo = dailyOverdueRepo;
+        this.userRepo = userRepo;
+        this.meterRegistry = meterRegistry;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    // Before a write: takes the tasks out of the rollup as they are now
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeCompletions(User user, Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            dailyCompletionRepo.addCompletions(user.getId(), taskIds, -1);
+        }
+    }
+
+    // After a write: puts the tasks back in as they are now
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addCompletions(User user, Collection<Long> taskIds) {
+        if (!taskIds.isEmpty()) {
+            dailyCompletionRepo.addCompletions(user.getId(), taskIds, 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.analytics.backfill-interval:PT10M}",
+            initialDelayString = "${todo.analytics.backfill-delay:PT1M}")
+    public int backfill() {
+        int done = 0;
+        Long after = 0L;
+        while (true) {
+            List<Long> batch = userRepo.findIdsAwaitingRollups(after, Limit.of(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return done;
+            }
+            tx.executeWithoutResult(status -> {
+                userRepo.lockAll(batch);
+                dailyCompletionRepo.deleteByUsers(batch);
+                dailyCompletionRepo.countByUsers(batch);
+                userRepo.markRollupsReady(batch);
+            });
+            meterRegistry.counter("todo.analytics.backfilled").increment(batch.size());
+            done += batch.size();
+            after = batch.get(batch.size() - 1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.analytics.snapshot-interval:PT1H}",
+            initialDelayString = "${todo.analytics.backfill-delay:PT1M}")
+    public boolean snapshotOverdue() {
+        LocalDate today = LocalDate.now();
+        if (dailyOverdueRepo.isSnapshotTaken(today)) {
+            return false;
+        }
+        // Batches that finished before a crash are simply counted again on the next run
+        Long after = 0L;
+        while (true) {
+            List<Long> batch = userRepo.findIdsAfter(after, Limit.of(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            tx.executeWithoutResult(status -> dailyOverdueRepo.countOverdue(batch, today));
+            after = batch.get(batch.size() - 1);
+        }
+        tx.executeWithoutResult(status -> dailyOverdueRepo.markSnapshotTaken(today, Instant.now()));
+        return true;
+    }
+}
@@ -0,0 +1,375 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Per-user inverted index over task titles.
+ * <p>
+ * Titles are split into lower-case terms. Each term maps to the ids of the tasks containing it
+ * (a sorted map, so prefixes are a range scan), and each term's trigrams map back to the term
+ * so misspelled query terms find their neighbours. A query matches a task only if every query
+ * term matches one of its terms: exactly, as a prefix, or within a small edit distance.
+ * <p>
+ * An index is built from the DB the first time a user searches and is kept in sync with
+ * committed creates, updates and deletes. It remembers the user's change sequence (see
+ * {@link TaskChangeLog}) it reflects, which each write made here moves on by one; every search
+ * reads the sequence from the user row (one primary key lookup), and if it has moved further,
+ * e.g. by a write on another instance, the index is built again. Indexes are weighed by the tasks they hold, and the
+ * least used are dropped once all of them together exceed todo.search.max-indexed-tasks.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    private final TaskRepo taskRepo;
+    private final UserRepo userRepo;
+    private final Cache<Long, Holder> holders;
+
+    public TaskSearchIndex(TaskRepo taskRepo, UserRepo userRepo,
+                           @Value("${todo.search.max-indexed-tasks:200000}") long maxIndexedTasks) {
+        this.taskRepo = taskRepo;
+        this.userRepo = userRepo;
+        this.holders = Caffeine.newBuilder()
+                .maximumWeight(maxIndexedTasks)
+                .weigher((Long userId, Holder holder) -> Math.max(1, holder.indexed))
+                .build();
+    }
+
+    /**
+     * Ids of the user's tasks matching every term of the query's keyword and its filters,
+     * best matches first. Must run inside a transaction (the first call streams the user's tasks).
+     */
+    public List<Long> search(User user, TaskQuery query) {
+        List<String> terms = tokenize(query.getKeyword());
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        UserIndex index = loadedIndex(user);
+        synchronized (index) {
+            return index.search(terms, query);
+        }
+    }
+
+    /**
+     * Applies a create (before == null), update or delete (after == null), written under the
+     * given change sequence, once it has committed.
+     */
+    public void recordChange(User user, long seq, TaskRow before, TaskRow after) {
+        recordChanges(user, seq, before == null ? List.of() : List.of(before), after == null ? List.of() : List.of(after));
+    }
+
+    /** Batch form of {@link #recordChange}: the rows in before are removed, the rows in after (re)indexed. */
+    public void recordChanges(User user, long seq, List<TaskRow> before, List<TaskRow> after) {
+        applyOnCommit(user, new Change(seq, before.stream().map(TaskRow::id).toList(), after));
+    }
+
+    /** Removes tasks known only by id (archival) once the change has committed. */
+    public void recordRemovals(User user, long seq, List<Long> ids) {
+        applyOnCommit(user, new Change(seq, ids, List.of()));
+    }
+
+    private void applyOnCommit(User user, Change change) {
+        Runnable apply = () -> {
+            Holder holder = holders.getIfPresent(user.getId());
+            if (holder != null) {
+                holder.apply(change);
+                reweigh(user.getId());
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    private UserIndex loadedIndex(User user) {
+        Holder holder = holders.get(user.getId(), id -> new Holder());
+        long current = userRepo.findChangeSeq(user.getId());
+        holder.buildLock.lock();
+        try {
+            synchronized (holder) {
+                if (holder.index != null && holder.seq >= current) {
+                    return holder.index;
+                }
+                holder.index = null;
+                holder.pending = new ArrayList<>();
+            }
+            // Changes committed from here on are queued and replayed; upserts and removes are
+            // idempotent, so replaying one the snapshot already contains is harmless. The sequence
+            // is read after queueing starts, so every write past it is either queued or read below
+            long seq = userRepo.findChangeSeq(user.getId());
+            UserIndex built = new UserIndex();
+            try (Stream<TaskRow> rows = taskRepo.streamRowsByUser(user)) {
+                rows.forEach(built::upsert);
+            }
+            synchronized (holder) {
+                holder.seq = seq;
+                holder.pending.forEach(holder::advance);
+                holder.pending.forEach(built::apply);
+                holder.pending = null;
+                holder.index = built;
+                holder.indexed = built.docs.size();
+            }
+            reweigh(user.getId());
+            return built;
+        } finally {
+            holder.buildLock.unlock();
+        }
+    }
+
+    // The cache weighs an entry when it is written, so an index that grew or shrank is written again
+    private void reweigh(Long userId) {
+        holders.asMap().computeIfPresent(userId, (id, holder) -> holder);
+    }
+
+    // Tasks held by all loaded indexes, as the cache weighs them
+    long indexedTasks() {
+        holders.cleanUp();
+        return holders.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (!current.isEmpty()) {
+                terms.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (!current.isEmpty()) {
+            terms.add(current.toString());
+        }
+        return terms;
+    }
+
+    private record Change(long seq, List<Long> removed, List<TaskRow> upserted) {
+    }
+
+    private static final class Holder {
+        private final ReentrantLock buildLock = new ReentrantLock();
+        private UserIndex index;
+        private List<Change> pending;
+        // The user's change sequence the index is known to reflect
+        private long seq;
+        // Tasks in the index, for its weight
+        private volatile int indexed;
+
+        synchronized void apply(Change change) {
+            if (index != null) {
+                synchronized (index) {
+                    index.apply(change);
+                    indexed = index.docs.size();
+                }
+                advance(change);
+            } else if (pending != null) {
+                pending.add(change);
+            }
+        }
+
+        // Only the next write in sequence moves it on: after a gap (a write made elsewhere, or ones
+        // committing out of order) it stays behind, and the next search builds the index again
+        private void advance(Change change) {
+            if (change.seq() == seq + 1) {
+                seq = change.seq();
+            }
+        }
+    }
+
+    // Guarded by its own monitor once published
+    private static final class UserIndex {
+        private final Map<Long, TaskRow> docs = new HashMap<>();
+        private final Map<Long, List<String>> docTerms = new HashMap<>();
+        private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+        private final Map<String, Set<String>> trigramToTerms = new HashMap<>();
+
+        void apply(Change change) {
+            change.removed().forEach(this::remove);
+            change.upserted().forEach(this::upsert);
+        }
+
+        void upsert(TaskRow row) {
+            remove(row.id());
+            List<String> terms = tokenize(row.title());
+            docs.put(row.id(), row);
+            docTerms.put(row.id(), terms);
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    postings.put(term, ids);
+                    for (String gram : trigrams(term)) {
+                        trigramToTerms.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                    }
+                }
+                ids.add(row.id());
+            }
+        }
+
+        void remove(Long id) {
+            List<String> terms = docTerms.remove(id);
+            docs.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Set<Long> ids = postings.get(term);
+                if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                    postings.remove(term);
+                    for (String gram : trigrams(term)) {
+                        Set<String> owners = trigramToTerms.get(gram);
+                        if (owners != null && owners.remove(term) && owners.isEmpty()) {
+                            trigramToTerms.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Long> search(List<String> queryTerms, TaskQuery query) {
+            // Score each candidate task per query term, then keep tasks matched by all terms
+            Map<Long, Integer> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Integer> termScores = matchTerm(queryTerm);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Integer> merged = new HashMap<>();
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        Integer other = termScores.get(entry.getKey());
+                        if (other != null) {
+                            merged.put(entry.getKey(), entry.getValue() + other);
+                        }
+                    }
+                    scores = merged;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Integer> finalScores = scores;
+            return finalScores.keySet().stream()
+                    .map(docs::get)
+                    .filter(row -> matchesFilters(row, query))
+                    // Best score, then titles with fewer extra words, then earliest due date
+                    .sorted(Comparator.comparing((TaskRow row) -> finalScores.get(row.id())).reversed()
+                            .thenComparing(row -> docTerms.get(row.id()).size())
+                            .thenComparing(TaskRow::dueDate, Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+                            .thenComparing(TaskRow::id))
+                    .map(TaskRow::id)
+                    .toList();
+        }
+
+        private Map<Long, Integer> matchTerm(String queryTerm) {
+            Map<Long, Integer> result = new HashMap<>();
+            // Exact term and every indexed term it is a prefix of
+            for (Map.Entry<String, Set<Long>> entry
+                    : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                int score = entry.getKey().equals(queryTerm) ? EXACT : PREFIX;
+                for (Long id : entry.getValue()) {
+                    result.merge(id, score, Math::max);
+                }
+            }
+            // Typo tolerance: terms sharing a trigram and within the allowed edit distance
+            int maxEdits = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+            if (maxEdits > 0) {
+                Set<String> candidates = new HashSet<>();
+                for (String gram : trigrams(queryTerm)) {
+                    Set<String> owners = trigramToTerms.get(gram);
+                    if (owners != null) {
+                        candidates.addAll(owners);
+                    }
+                }
+                for (String candidate : candidates) {
+                    if (!candidate.startsWith(queryTerm)
+                            && Math.abs(candidate.length() - queryTerm.length()) <= maxEdits
+                            && editDistance(queryTerm, candidate, maxEdits) <= maxEdits) {
+                        for (Long id : postings.get(candidate)) {
+                            result.merge(id, FUZZY, Math::max);
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+
+        private static boolean matchesFilters(TaskRow row, TaskQuery query) {
+            return (query.getStatus() == null || query.getStatus() == row.status())
+                    && (query.getPriority() == null || query.getPriority() == row.priority())
+                    && (query.getCategory() == null || query.getCategory() == row.category());
+        }
+    }
+
+    // Padded so short terms still have trigrams and word starts weigh in: "tax" -> "$$t", "$ta", "tax", "ax$"
+    private static Set<String> trigrams(String term) {
+        String padded = "$$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Levenshtein distance, giving up as soon as every cell in a row exceeds the limit
+    private static int editDistance(String a, String b, int limit) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
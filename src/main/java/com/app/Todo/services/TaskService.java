@@ -1,24 +1,70 @@
 package com.app.Todo.services;
 
 import com.app.Todo.models.*;
+import com.app.Todo.repo.TaskArchiveRepo;
 import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.TaskSpecifications;
 import com.app.Todo.repo.UserRepo;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
 
+    // Number of tasks rendered per page of the dashboard
+    public static final int PAGE_SIZE = 20;
+
+    // Most tasks one bulk request may touch (also keeps the IN (...) lists bounded)
+    public static final int BULK_LIMIT = 1000;
+
     private final TaskRepo taskRepo;
+    private final TaskArchiveRepo taskArchiveRepo;
+    private final TaskStatsService taskStatsService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskCache taskCache;
+    private final TaskEventBus taskEventBus;
+    private final TaskChangeLog taskChangeLog;
+    private final TaskRollups taskRollups;
+
+    // Cache hits must not open a transaction (and take a DB connection), so reads start one only on a miss.
+    // It is read-only, so with a read replica configured the miss is served there (see ReadReplicaConfig)
+    private final TransactionTemplate readOnlyTx;
 
-    public TaskService(TaskRepo taskRepo) {
+    public TaskService(TaskRepo taskRepo, TaskArchiveRepo taskArchiveRepo, TaskStatsService taskStatsService,
+                       TaskSearchIndex taskSearchIndex, TaskCache taskCache, TaskEventBus taskEventBus,
+                       TaskChangeLog taskChangeLog, TaskRollups taskRollups,
+                       PlatformTransactionManager transactionManager) {
         this.taskRepo = taskRepo;
+        this.taskArchiveRepo = taskArchiveRepo;
+        this.taskStatsService = taskStatsService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskCache = taskCache;
+        this.taskEventBus = taskEventBus;
+        this.taskChangeLog = taskChangeLog;
+        this.taskRollups = taskRollups;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
     }
 
     @Autowired
@@ -27,75 +73,264 @@ public class TaskService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public List<Task> getAllTasksByUser(User user) {
-        return taskRepo.findByUser(user);
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private UserCache userCache;
+
+    public List<TaskRow> getAllTasksByUser(User user) {
+        return taskCache.get(user, "all", () -> readOnlyTx.execute(tx -> taskRepo.findRowsByUser(user)));
+    }
+
+    // One SQL statement for any mix of filters and sort keys, read as a keyset page of row columns only
+    public Window<TaskRow> findTasks(User user, TaskQuery query, ScrollPosition position) {
+        String shape = "page:" + query + "@" + TaskCursor.encode(position);
+        return taskCache.get(user, shape, () -> readOnlyTx.execute(tx -> {
+            if (query.isArchived()) {
+                return findArchivedTasks(user, query, position);
+            }
+            if (query.hasKeyword()) {
+                return searchTasks(user, query, position);
+            }
+            KeysetScrollPosition keyset = position instanceof KeysetScrollPosition k ? k : ScrollPosition.keyset();
+            return taskRepo.scrollRows(query.toSpecification(user), query.toSort(), PAGE_SIZE, keyset);
+        }));
+    }
+
+    // Ranked ids come from the in-memory index; only the current page is loaded from the DB
+    private Window<TaskRow> searchTasks(User user, TaskQuery query, ScrollPosition position) {
+        List<Long> ranked = taskSearchIndex.search(user, query);
+        int start = position instanceof OffsetScrollPosition offset && !offset.isInitial()
+                ? (int) offset.getOffset() + 1 : 0;
+        List<Long> pageIds = ranked.subList(Math.min(start, ranked.size()), Math.min(start + PAGE_SIZE, ranked.size()));
+
+        Map<Long, TaskRow> byId = new HashMap<>();
+        if (!pageIds.isEmpty()) {
+            for (TaskRow row : taskRepo.findRowsByUserAndIdIn(user, pageIds)) {
+                byId.put(row.id(), row);
+            }
+        }
+        List<TaskRow> page = pageIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return Window.from(page, i -> ScrollPosition.offset(start + i), start + PAGE_SIZE < ranked.size());
+    }
+
+    // The cold tier (see TaskArchiveService) is outside the search index, so a keyword is a plain title match there
+    private Window<TaskRow> findArchivedTasks(User user, TaskQuery query, ScrollPosition position) {
+        Specification<ArchivedTask> spec = query.toSpecification(user);
+        if (query.hasKeyword()) {
+            spec = spec.and(TaskSpecifications.titleContains(query.getKeyword().trim()));
+        }
+        KeysetScrollPosition keyset = position instanceof KeysetScrollPosition k ? k : ScrollPosition.keyset();
+        return taskRepo.scrollArchivedRows(spec, query.toSort(), PAGE_SIZE, keyset);
     }
 
-    public void createTask(String title, LocalDate dueDate, Status status, Priority priority, Category category, User user) {
+    @Transactional
+    public TaskRow createTask(String title, LocalDate dueDate, Status status, Priority priority, Category category, User user) {
+        long seq = taskChangeLog.nextSequence(user);
         Task task = new Task();
         task.setTitle(title);
         task.setDueDate(dueDate);
         task.setStatus(status);
         task.setPriority(priority);
         task.setCategory(category);
+        task.setCompletedAt(completedAt(status));
         task.setUser(user);
+        task.setChangeSeq(seq);
         taskRepo.save(task);
+        if (status == Status.COMPLETED) {
+            taskRollups.addCompletions(user, List.of(task.getId()));
+        }
+        TaskRow row = TaskRow.of(task);
+        recordChanges(user, seq, List.of(), List.of(row));
+        return row;
     }
 
-    public void deleteTask(Long id,User user) {
-        Task task = taskRepo.findById(id).orElse(null);
-        if(task != null && task.getUser().getId().equals(user.getId())) {
-            taskRepo.deleteById(id);
+    // The live row is read (and locked) first, then one DELETE keyed by id and owner; a task that is
+    // not live is deleted from the archive instead. False if neither had it
+    @Transactional
+    public boolean deleteTask(Long id, User user) {
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, List.of(id));
+        if (before.isEmpty()) {
+            // Only completed tasks are archived, and they already left delta sync (with their tombstone)
+            taskRollups.removeCompletions(user, List.of(id));
+            if (taskArchiveRepo.deleteOwned(id, user) == 0) {
+                return false;
+            }
+            taskCache.invalidate(user);
+            taskEventBus.publish(user, List.of(), List.of(), List.of(id));
+            return true;
         }
+        taskRollups.removeCompletions(user, completedIds(before, true));
+        taskRepo.deleteOwned(id, user);
+        taskChangeLog.recordDeletes(user, seq, List.of(id));
+        recordChanges(user, seq, before, List.of());
+        return true;
     }
 
-    public Task getTaskById(Long id){
-        return taskRepo.findById(id).orElse(null);
+    // The user's rows among the given ids (those deleted meanwhile are simply missing)
+    @Transactional(readOnly = true)
+    public List<TaskRow> getTaskRows(Collection<Long> ids, User user) {
+        checkBulkSize(ids.size());
+        return ids.isEmpty() ? List.of() : taskRepo.findRowsByUserAndIdIn(user, ids);
     }
 
+    // The edit form's values; only returns the task if it belongs to the user
+    public TaskForm getTaskForm(Long id, User user){
+        return taskCache.get(user, "task:" + id,
+                () -> readOnlyTx.execute(tx -> taskRepo.findFormByIdAndUser(id, user).orElse(null)));
+    }
+
+    /**
+     * Reads (and locks) the row, then one UPDATE keyed by id, owner and the version the caller last
+     * saw (null skips the check). Returns false if the user has no such task; throws if it was
+     * changed since that version.
+     */
     @Transactional
-    public void updateTask(Long id, String title, LocalDate dueDate, Status status, Priority priority,Category category, User user) {
-        Task task = taskRepo.findById(id).orElseThrow(() -> new IllegalArgumentException("Invalid task Id:" + id));
-        if (task.getUser().getId().equals(user.getId())) {
-            task.setTitle(title);
-            task.setDueDate(dueDate);
-            task.setStatus(status);
-            task.setPriority(priority);
-            task.setCategory(category);
-            taskRepo.save(task);
+    public boolean updateTask(Long id, Long version, String title, LocalDate dueDate, Status status, Priority priority,
+                              Category category, User user) {
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, List.of(id));
+        if (before.isEmpty()) {
+            return false;
+        }
+        TaskRow old = before.get(0);
+        // The completion rollup only moves if the task enters or leaves COMPLETED or changes bucket
+        boolean rollupMoves = old.status() != status || old.category() != category || old.priority() != priority;
+        if (rollupMoves) {
+            taskRollups.removeCompletions(user, completedIds(before, true));
         }
+        if (taskRepo.updateOwned(id, user, version, title, dueDate, status, priority, category,
+                completedAt(status), seq) == 0) {
+            throw new OptimisticLockingFailureException("Task " + id + " was changed after version " + version);
+        }
+        if (rollupMoves && status == Status.COMPLETED) {
+            taskRollups.addCompletions(user, List.of(id));
+        }
+        recordChanges(user, seq, before, List.of(new TaskRow(id, title, dueDate, status, priority, category)));
+        return true;
     }
 
-    public List<Task> getTasksByStatus(User user, Status status) {
-        return taskRepo.findByUserAndStatus(user, status);
+    // --- BULK OPERATIONS: a fixed number of round-trips however many tasks are selected ---
+    // (every write, single or bulk, first takes the user's next change sequence; see TaskChangeLog)
+
+    // Inserts go out as JDBC batches, ids come from the pooled sequence
+    @Transactional
+    public int createTasks(List<Task> tasks, User user) {
+        checkBulkSize(tasks.size());
+        long seq = taskChangeLog.nextSequence(user);
+        for (Task task : tasks) {
+            task.setCompletedAt(completedAt(task.getStatus()));
+            task.setUser(user);
+            task.setChangeSeq(seq);
+        }
+        taskRepo.saveAll(tasks);
+        taskRollups.addCompletions(user, tasks.stream()
+                .filter(task -> task.getStatus() == Status.COMPLETED).map(Task::getId).toList());
+        recordChanges(user, seq, List.of(), tasks.stream().map(TaskRow::of).toList());
+        return tasks.size();
     }
 
-    public List<Task> getTasksByPriority(User user, Priority priority) {
-        return taskRepo.findByUserAndPriority(user, priority);
+    @Transactional
+    public int updateStatus(Collection<Long> ids, Status status, User user) {
+        checkBulkSize(ids.size());
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, ids);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        updateStatus(user, before, status, seq);
+        recordChanges(user, seq, before, before.stream().map(row -> row.withStatus(status)).toList());
+        return before.size();
     }
 
-    public List<Task> getTasksSortedByDate(User user) {
-        return taskRepo.findByUserOrderByDueDateAsc(user);
+    // Single-task status change (the dashboard's Done/Reopen toggle): two statements, and the
+    // stats are adjusted by the row's before/after values instead of being recounted
+    @Transactional
+    public TaskRow changeStatus(Long id, Status status, User user) {
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, List.of(id));
+        if (before.isEmpty()) {
+            return null;
+        }
+        updateStatus(user, before, status, seq);
+        TaskRow after = before.get(0).withStatus(status);
+        recordChanges(user, seq, before, List.of(after));
+        return after;
     }
 
-    public List<Task> getTasksSortedByStatus(User user) {
-        return taskRepo.findByUserOrderByStatusAsc(user);
+    @Transactional
+    public int updateCategory(Collection<Long> ids, Category category, User user) {
+        checkBulkSize(ids.size());
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, ids);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        List<Long> completed = completedIds(before, true);
+        taskRollups.removeCompletions(user, completed);
+        taskRepo.updateCategory(user, ids, category, seq);
+        taskRollups.addCompletions(user, completed);
+        recordChanges(user, seq, before, before.stream().map(row -> row.withCategory(category)).toList());
+        return before.size();
     }
 
-    public List<Task> getTasksByCategory(User user, Category category) {
-        return taskRepo.findByUserAndCategory(user, category);
+    @Transactional
+    public int deleteTasks(Collection<Long> ids, User user) {
+        checkBulkSize(ids.size());
+        long seq = taskChangeLog.nextSequence(user);
+        List<TaskRow> before = taskRepo.findRowsForUpdate(user, ids);
+        if (before.isEmpty()) {
+            return 0;
+        }
+        taskRollups.removeCompletions(user, completedIds(before, true));
+        taskRepo.deleteAllByUser(user, ids);
+        taskChangeLog.recordDeletes(user, seq, before.stream().map(TaskRow::id).toList());
+        recordChanges(user, seq, before, List.of());
+        return before.size();
+    }
+
+    // Only tasks whose status actually changes move in the completion rollup: reopened ones leave
+    // the day they were completed on, newly completed ones join today
+    private void updateStatus(User user, List<TaskRow> before, Status status, long seq) {
+        List<Long> ids = before.stream().map(TaskRow::id).toList();
+        if (status != Status.COMPLETED) {
+            taskRollups.removeCompletions(user, completedIds(before, true));
+        }
+        taskRepo.updateStatus(user, ids, status, completedAt(status), seq);
+        if (status == Status.COMPLETED) {
+            taskRollups.addCompletions(user, completedIds(before, false));
+        }
     }
 
-    public long countByUserAndStatus(User user, Status status) {
-        return taskRepo.countByUserAndStatus(user, status);
+    private static List<Long> completedIds(List<TaskRow> rows, boolean completed) {
+        return rows.stream().filter(row -> (row.status() == Status.COMPLETED) == completed).map(TaskRow::id).toList();
     }
 
-    public long countByUser(User user) {
-        return taskRepo.countByUser(user);
+    // Completion time for a write that sets this status; tasks that already had it keep theirs
+    private static Instant completedAt(Status status) {
+        return status == Status.COMPLETED ? Instant.now() : null;
     }
 
-    public List<Task> searchTasks(User user, String keyword) {
-        return taskRepo.findByUserAndTitleContaining(user, keyword);
+    private void checkBulkSize(int size) {
+        if (size > BULK_LIMIT) {
+            throw new IllegalArgumentException("At most " + BULK_LIMIT + " tasks can be changed at once");
+        }
+    }
+
+    // Keeps the in-memory views of the user's tasks in step with a committed change
+    private void recordChanges(User user, long seq, List<TaskRow> before, List<TaskRow> after) {
+        taskStatsService.recordChanges(user, before, after);
+        taskSearchIndex.recordChanges(user, seq, before, after);
+        taskCache.invalidate(user);
+
+        Set<Long> beforeIds = before.stream().map(TaskRow::id).collect(Collectors.toSet());
+        Set<Long> afterIds = after.stream().map(TaskRow::id).collect(Collectors.toSet());
+        taskEventBus.publish(user,
+                after.stream().filter(row -> !beforeIds.contains(row.id())).toList(),
+                after.stream().filter(row -> beforeIds.contains(row.id())).toList(),
+                beforeIds.stream().filter(id -> !afterIds.contains(id)).toList());
     }
 
     @Transactional
@@ -104,6 +339,8 @@ public class TaskService {
         User user = userOptional.orElseThrow(() -> new IllegalArgumentException("User not found"));
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepo.save(user);
+        readYourWrites.recordWrite(user);
+        userCache.invalidate(user);
     }
 
 }
@@ -0,0 +1,177 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.TaskCount;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.TaskStats;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Keeps each user's dashboard counters in memory. Counters are rebuilt from one GROUP BY
+ * query when missing and then kept exact by applying every committed create/update/delete.
+ * Writes made on other instances are not seen here, so a user's counters are dropped and
+ * counted again todo.stats.ttl after they were loaded; at most todo.stats.max-users are kept.
+ */
+@Service
+public class TaskStatsService {
+
+    private final TaskRepo taskRepo;
+    private final TransactionTemplate primaryTx;
+
+    private final Cache<Long, Slot> slots;
+
+    public TaskStatsService(TaskRepo taskRepo, PlatformTransactionManager transactionManager,
+                            @Value("${todo.stats.max-users:100000}") long maxUsers,
+                            @Value("${todo.stats.ttl:5m}") Duration ttl) {
+        this.taskRepo = taskRepo;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.slots = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public TaskStats getStats(User user) {
+        Slot slot = slotFor(user.getId());
+        long seenMutations;
+        synchronized (slot) {
+            if (slot.stats != null) {
+                return slot.stats.copy();
+            }
+            seenMutations = slot.mutations;
+        }
+
+        // Counted in a read-write transaction, i.e. on the primary even with a read replica (on its own,
+        // the query method would run read-only): the result is kept until the user's next write, so it
+        // must not come from a replica that lags
+        List<TaskCount> counts = primaryTx.execute(tx -> taskRepo.countGroupedByUser(user));
+        TaskStats rebuilt = new TaskStats();
+        for (TaskCount row : counts) {
+            rebuilt.add(row.status(), row.priority(), row.category(), row.count());
+        }
+
+        // Only keep the result if no write for this user was committing while we counted,
+        // otherwise we can't tell whether the snapshot already includes it
+        synchronized (slot) {
+            if (slot.stats == null && slot.inFlight == 0 && slot.mutations == seenMutations) {
+                slot.stats = rebuilt.copy();
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Records one task change: before is null for a create, after is null for a delete.
+     * Inside a transaction the delta is applied only once the transaction has committed.
+     */
+    public void recordChange(User user, TaskRow before, TaskRow after) {
+        recordChanges(user, before == null ? List.of() : List.of(before), after == null ? List.of() : List.of(after));
+    }
+
+    /** Batch form of {@link #recordChange}: the rows in before are removed, the rows in after added. */
+    public void recordChanges(User user, List<TaskRow> before, List<TaskRow> after) {
+        onCommit(user, slot -> applyIfLoaded(slot, before, after));
+    }
+
+    /**
+     * Records a change whose previous values were never read (a single-statement update or delete):
+     * the user's counters are dropped once it commits and rebuilt on the next read.
+     */
+    public void recordUnknownChange(User user) {
+        onCommit(user, slot -> slot.stats = null);
+    }
+
+    private void onCommit(User user, Consumer<Slot> apply) {
+        Slot slot = slotFor(user.getId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (slot) {
+                slot.mutations++;
+                apply.accept(slot);
+            }
+            forgetSuccessor(user.getId(), slot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                synchronized (slot) {
+                    committing = true;
+                    slot.inFlight++;
+                    slot.mutations++;
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (slot) {
+                    if (committing) {
+                        slot.inFlight--;
+                    }
+                    if (status == STATUS_COMMITTED) {
+                        apply.accept(slot);
+                    } else if (status == STATUS_UNKNOWN) {
+                        // Can't tell whether the change reached the DB: rebuild on next read
+                        slot.stats = null;
+                    }
+                }
+                forgetSuccessor(user.getId(), slot);
+            }
+        });
+    }
+
+    // If the slot expired or was evicted while the write ran, the one replacing it may have counted
+    // without the write and does not know to wait for it: its counters go, and a count in progress is not kept
+    private void forgetSuccessor(Long userId, Slot slot) {
+        Slot current = slots.getIfPresent(userId);
+        if (current != null && current != slot) {
+            synchronized (current) {
+                current.mutations++;
+                current.stats = null;
+            }
+        }
+    }
+
+    public void invalidate(User user) {
+        Slot slot = slotFor(user.getId());
+        synchronized (slot) {
+            slot.stats = null;
+        }
+    }
+
+    private void applyIfLoaded(Slot slot, List<TaskRow> before, List<TaskRow> after) {
+        if (slot.stats == null) {
+            return;
+        }
+        for (TaskRow row : before) {
+            slot.stats.add(row.status(), row.priority(), row.category(), -1);
+        }
+        for (TaskRow row : after) {
+            slot.stats.add(row.status(), row.priority(), row.category(), 1);
+        }
+    }
+
+    private Slot slotFor(Long userId) {
+        return slots.get(userId, id -> new Slot());
+    }
+
+    // Guarded by its own monitor
+    private static final class Slot {
+        private TaskStats stats;
+        private int inFlight;
+        private long mutations;
+    }
+}
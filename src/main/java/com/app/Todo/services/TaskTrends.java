@@ -0,0 +1,25 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Completion and overdue trends for a date range, one bucket per day or ISO week (starting
+ * Monday). overdue is the count at the start of the bucket's last snapshotted day, or null if
+ * no snapshot was taken in it. complete is false while the user's history is still being backfilled.
+ */
+public record TaskTrends(LocalDate from, LocalDate to, Granularity granularity, boolean complete,
+                         List<Bucket> buckets) {
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    public record Bucket(LocalDate start, int completed, Map<Category, Integer> completedByCategory,
+                         Map<Priority, Integer> completedByPriority, Integer overdue) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cheap "has anything changed?" answer per user, for conditional GETs (ETag / Last-Modified).
+ * <p>
+ * A user's version is their change sequence (see {@link TaskChangeLog}), so it moves with every
+ * committed task write, whichever instance made it. It is read per request (one primary key
+ * lookup on user), never answered from memory alone. What is kept here is when each version was
+ * first seen, for Last-Modified: the commit time for this instance's own writes, otherwise the
+ * first request that saw it, which is only ever later.
+ */
+@Component
+public class TaskVersionStamps {
+
+    public record Stamp(long version, long lastModified) {
+    }
+
+    private final UserRepo userRepo;
+    private final Cache<Long, Stamp> stamps = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+
+    public TaskVersionStamps(UserRepo userRepo) {
+        this.userRepo = userRepo;
+    }
+
+    public Stamp current(User user) {
+        long version = userRepo.findChangeSeq(user.getId());
+        return stamps.asMap().compute(user.getId(), (id, seen) -> seen != null && seen.version() == version
+                ? seen : new Stamp(version, System.currentTimeMillis()));
+    }
+
+    // Called by the write that took this version; it becomes current when that write commits
+    void recordWrite(User user, long version) {
+        Runnable apply = () -> stamps.asMap().merge(user.getId(), new Stamp(version, System.currentTimeMillis()),
+                (old, stamp) -> old.version() >= stamp.version() ? old : stamp);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,110 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Users by username for the login path, bounded in size and by a TTL.
+ * <p>
+ * Misses read the primary in a read-write transaction (never the read replica), so a password
+ * changed or an account created a moment ago works straight away. A hit is only trusted once the
+ * password hash on the primary (a primary-key read of one column) still matches the cached one,
+ * so a password changed on another instance locks out the old one there too; a local change also
+ * drops the cached entry once it commits. Entries are keyed by the lower-cased name, as MySQL matches
+ * usernames without regard to case, so one invalidation drops the user whatever casing logged
+ * in. Unknown names are not cached. Every lookup hands out its own copy, so sessions never share
+ * (or change) the cached object.
+ * Lookup time is published as todo.auth.lookup (source=cache|db), hit/miss counts as the
+ * "cache.*" metrics with cache=users.
+ */
+@Component
+public class UserCache {
+
+    private final UserRepo userRepo;
+    private final TransactionTemplate primaryTx;
+    private final Cache<String, User> users;
+    private final Timer cacheLookups;
+    private final Timer dbLookups;
+
+    public UserCache(UserRepo userRepo, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                     @Value("${todo.cache.users.max-size:10000}") long maxSize,
+                     @Value("${todo.cache.users.ttl:10m}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.cacheLookups = meterRegistry.timer("todo.auth.lookup", "source", "cache");
+        this.dbLookups = meterRegistry.timer("todo.auth.lookup", "source", "db");
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    // Null if there is no such user
+    public User findByUsername(String username) {
+        long start = System.nanoTime();
+        String key = keyOf(username);
+        User cached = users.getIfPresent(key);
+        if (cached != null && isCurrent(cached)) {
+            cacheLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return copyOf(cached);
+        }
+        User user = primaryTx.execute(tx -> userRepo.findByUsername(username));
+        dbLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (user == null) {
+            return null;
+        }
+        users.put(key, copyOf(user));
+        return user;
+    }
+
+    // Called when a user's credentials change; takes effect once the surrounding transaction commits
+    public void invalidate(User user) {
+        String key = keyOf(user.getUsername());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            users.invalidate(key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                users.invalidate(key);
+            }
+        });
+    }
+
+    // False once the password changed anywhere, not just through this instance
+    private boolean isCurrent(User cached) {
+        String password = primaryTx.execute(tx -> userRepo.findPassword(cached.getId()));
+        return cached.getPassword().equals(password);
+    }
+
+    private static String keyOf(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setId(user.getId());
+        copy.setUsername(user.getUsername());
+        copy.setPassword(user.getPassword());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+}
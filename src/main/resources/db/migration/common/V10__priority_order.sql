@@ -0,0 +1,5 @@
+-- Priorities declared in urgency order, as in Priority (HIGH, MEDIUM, LOW). ENUM columns sort by
+-- declaration order, so ORDER BY priority is that order and idx_task_user_priority_due serves it.
+ALTER TABLE task MODIFY COLUMN priority ENUM ('HIGH','MEDIUM','LOW') NOT NULL;
+ALTER TABLE task_archive MODIFY COLUMN priority ENUM ('HIGH','MEDIUM','LOW') NOT NULL;
+ALTER TABLE task_completion_daily MODIFY COLUMN priority ENUM ('HIGH','MEDIUM','LOW') NOT NULL;
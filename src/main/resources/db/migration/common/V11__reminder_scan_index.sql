@@ -0,0 +1,5 @@
+-- Reminder scans read the due dates in question in (due_date, id) order, with status and reminder level
+-- checked on the index entry, so a batch needs no sort and stops at its limit. Replaces
+-- idx_task_reminder, which needed one range per (status, level) pair and a sort to merge them.
+CREATE INDEX idx_task_due_reminder ON task (due_date, id, status, reminder_level);
+DROP INDEX idx_task_reminder ON task;
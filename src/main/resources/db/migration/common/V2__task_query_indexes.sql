@@ -0,0 +1,15 @@
+-- Composite indexes for the dashboard query engine (TaskQuery).
+-- Every task query filters on user_id first; InnoDB appends the primary key (id) to each
+-- secondary index, so these also serve the keyset ORDER BY ..., id without a filesort.
+
+-- status filter, ordered by due date
+CREATE INDEX idx_task_user_status_due ON task (user_id, status, due_date);
+
+-- category filter, optionally combined with priority
+CREATE INDEX idx_task_user_category_priority ON task (user_id, category, priority);
+
+-- priority filter / priority sort, ordered by due date
+CREATE INDEX idx_task_user_priority_due ON task (user_id, priority, due_date);
+
+-- unfiltered listing sorted by due date
+CREATE INDEX idx_task_user_due ON task (user_id, due_date);
@@ -0,0 +1,2 @@
+-- Optimistic locking: every update bumps the version, stale edits match no row
+ALTER TABLE task ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,26 @@
+-- Delta sync: every mutation takes the next value of its user's change sequence and stamps it on
+-- the tasks it touched (so live tasks are their own, already compacted, change log) or, for
+-- deletes, on a tombstone. Clients ask for everything after the last sequence they have seen.
+ALTER TABLE user ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Highest sequence whose tombstones were purged; clients older than that must resync from scratch
+ALTER TABLE user ADD COLUMN sync_floor BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE task ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+-- Everything that exists today counts as change 1
+UPDATE user SET change_seq = 1;
+UPDATE task SET change_seq = 1;
+
+CREATE INDEX idx_task_user_change ON task (user_id, change_seq);
+
+CREATE TABLE task_tombstone (
+    task_id    BIGINT      NOT NULL,
+    user_id    BIGINT      NOT NULL,
+    change_seq BIGINT      NOT NULL,
+    deleted_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (task_id)
+);
+
+CREATE INDEX idx_task_tombstone_user_change ON task_tombstone (user_id, change_seq);
+CREATE INDEX idx_task_tombstone_deleted_at ON task_tombstone (deleted_at);
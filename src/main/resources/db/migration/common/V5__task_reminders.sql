@@ -0,0 +1,7 @@
+-- Reminder progress per task: 0 = none sent, 1 = due-soon sent, 2 = overdue sent.
+-- Reset to 0 whenever the task's due date changes.
+ALTER TABLE task ADD COLUMN reminder_level INT NOT NULL DEFAULT 0;
+
+-- Reminder scans look only at open tasks not yet reminded up to a due date, so completed
+-- and already-reminded tasks are never visited however many there are
+CREATE INDEX idx_task_reminder ON task (status, reminder_level, due_date);
@@ -0,0 +1,27 @@
+-- When a task was last marked completed; archival moves completed tasks out once this is old enough.
+-- Tasks already completed start their clock now. That is not when they were completed, so they are
+-- flagged completion_undated, which keeps them out of day-by-day counts until completed again.
+ALTER TABLE task ADD COLUMN completed_at DATETIME(6);
+ALTER TABLE task ADD COLUMN completion_undated BOOLEAN NOT NULL DEFAULT FALSE;
+UPDATE task SET completed_at = CURRENT_TIMESTAMP(6), completion_undated = TRUE WHERE status = 'COMPLETED';
+
+-- Archival scans read only completed tasks, oldest completion first
+CREATE INDEX idx_task_completed ON task (status, completed_at);
+
+-- Cold tier: completed tasks moved out of task so its table and indexes hold only the working set.
+-- Same columns as task (ids stay unique across both), plus when the row was moved.
+CREATE TABLE task_archive (
+    id           BIGINT       NOT NULL,
+    category     ENUM ('HEALTH','OTHER','PERSONAL','SHOPPING','WORK') NOT NULL,
+    due_date     DATE         NOT NULL,
+    priority     ENUM ('HIGH','LOW','MEDIUM') NOT NULL,
+    status       ENUM ('COMPLETED','IN_PROGRESS','NOT_STARTED') NOT NULL,
+    title        VARCHAR(255) NOT NULL,
+    user_id      BIGINT       NOT NULL,
+    completed_at DATETIME(6),
+    completion_undated BOOLEAN NOT NULL,
+    archived_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_task_archive_user ON task_archive (user_id, id);
@@ -0,0 +1,4 @@
+-- Logins and the registration check look users up by name: index it, and let the database (not a
+-- check-then-insert race) guarantee that a name is taken only once. Duplicates created before
+-- this constraint existed have to be merged or renamed before it can be applied.
+CREATE UNIQUE INDEX uk_user_username ON user (username);
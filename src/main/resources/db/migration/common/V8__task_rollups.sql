@@ -0,0 +1,31 @@
+-- Analytics rollups: small per-user, per-day tables the trends endpoint reads instead of task.
+
+-- Tasks (live or archived) completed on each day, per category and priority. Kept exact by every
+-- TaskService write; existing users' history is filled in by the backfill job (see rollups_ready).
+CREATE TABLE task_completion_daily (
+    user_id     BIGINT NOT NULL,
+    rollup_date DATE   NOT NULL,
+    category    ENUM ('HEALTH','OTHER','PERSONAL','SHOPPING','WORK') NOT NULL,
+    priority    ENUM ('HIGH','LOW','MEDIUM') NOT NULL,
+    completed   INT    NOT NULL,
+    PRIMARY KEY (user_id, rollup_date, category, priority)
+);
+
+-- Open tasks past their due date, counted once at the start of each day (users with none have no row)
+CREATE TABLE task_overdue_daily (
+    user_id     BIGINT NOT NULL,
+    rollup_date DATE   NOT NULL,
+    overdue     INT    NOT NULL,
+    PRIMARY KEY (user_id, rollup_date)
+);
+
+-- Days whose overdue counts have all been taken
+CREATE TABLE task_overdue_snapshot (
+    snapshot_date DATE        NOT NULL,
+    taken_at      DATETIME(6) NOT NULL,
+    PRIMARY KEY (snapshot_date)
+);
+
+-- Users from before the rollups wait for the backfill; users created from now on start with them
+ALTER TABLE user ADD COLUMN rollups_ready BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE user ALTER COLUMN rollups_ready SET DEFAULT TRUE;
@@ -0,0 +1,9 @@
+-- Delta sync covers the working table only, so archival now leaves a tombstone per moved task.
+-- Tasks archived before that get theirs here, as a new change of their owner; they count as
+-- deleted now, so the tombstones live out the full retention period.
+UPDATE user SET change_seq = change_seq + 1 WHERE id IN (SELECT user_id FROM task_archive);
+
+INSERT INTO task_tombstone (task_id, user_id, change_seq, deleted_at)
+SELECT a.id, a.user_id, u.change_seq, CURRENT_TIMESTAMP(6)
+FROM task_archive a JOIN user u ON u.id = a.user_id
+WHERE NOT EXISTS (SELECT 1 FROM task_tombstone t WHERE t.task_id = a.id);
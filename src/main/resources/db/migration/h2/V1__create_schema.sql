@@ -0,0 +1,21 @@
+-- H2 (MySQL mode) equivalent of mysql/V1__create_schema.sql, used by the test profile
+CREATE TABLE user (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    password VARCHAR(255),
+    username VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE task (
+    id       BIGINT       NOT NULL,
+    category ENUM ('HEALTH','OTHER','PERSONAL','SHOPPING','WORK') NOT NULL,
+    due_date DATE         NOT NULL,
+    priority ENUM ('HIGH','LOW','MEDIUM') NOT NULL,
+    status   ENUM ('COMPLETED','IN_PROGRESS','NOT_STARTED') NOT NULL,
+    title    VARCHAR(255) NOT NULL,
+    user_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES user (id)
+);
+
+CREATE SEQUENCE task_seq START WITH 1 INCREMENT BY 50;
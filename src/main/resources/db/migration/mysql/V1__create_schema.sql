@@ -0,0 +1,26 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update
+CREATE TABLE user (
+    id       BIGINT NOT NULL AUTO_INCREMENT,
+    password VARCHAR(255),
+    username VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE task (
+    id       BIGINT       NOT NULL,
+    category ENUM ('HEALTH','OTHER','PERSONAL','SHOPPING','WORK') NOT NULL,
+    due_date DATE         NOT NULL,
+    priority ENUM ('HIGH','LOW','MEDIUM') NOT NULL,
+    status   ENUM ('COMPLETED','IN_PROGRESS','NOT_STARTED') NOT NULL,
+    title    VARCHAR(255) NOT NULL,
+    user_id  BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_user FOREIGN KEY (user_id) REFERENCES user (id)
+) ENGINE = InnoDB;
+
+-- Hibernate's table-backed sequence for Task ids (MySQL has no native sequences)
+CREATE TABLE task_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+INSERT INTO task_seq VALUES (1);
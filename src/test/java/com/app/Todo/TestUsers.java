@@ -0,0 +1,18 @@
+package com.app.Todo;
+
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+
+// Users for tests that work below the login form. Every test class shares one database, so names must be unique
+public final class TestUsers {
+
+	private TestUsers() {
+	}
+
+	public static User newUser(UserRepo userRepo, String username) {
+		User user = new User();
+		user.setUsername(username);
+		user.setPassword("unused");
+		return userRepo.save(user);
+	}
+}
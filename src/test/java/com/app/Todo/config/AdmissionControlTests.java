@@ -0,0 +1,66 @@
+package com.app.Todo.config;
+
+import com.app.Todo.config.AdmissionControl.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTests {
+
+	@Test
+	void loginAttemptsFromElsewhereDoNotLockAUserOut() throws Exception {
+		AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionControl(environment()
+				.withProperty("todo.admission.auth.rate", "0.001")
+				.withProperty("todo.admission.auth.burst", "2"), new SimpleMeterRegistry()));
+
+		// Someone else guessing the victim's password runs out of their own budget...
+		assertThat(login(filter, "10.0.0.66", "victim")).isEqualTo(200);
+		assertThat(login(filter, "10.0.0.66", "Victim")).isEqualTo(200);
+		assertThat(login(filter, "10.0.0.66", "VICTIM")).isEqualTo(429);
+
+		// ...but not the victim's, who can still log in from their own address
+		assertThat(login(filter, "10.0.0.7", "victim")).isEqualTo(200);
+	}
+
+	@Test
+	void shedRequestsGiveTheirTokenBack() throws Exception {
+		AdmissionControl admissionControl = new AdmissionControl(environment()
+				.withProperty("todo.admission.export.rate", "0.001")
+				.withProperty("todo.admission.export.burst", "1")
+				.withProperty("todo.admission.export.max-concurrent", "1")
+				.withProperty("todo.admission.export.max-wait", "0s"), new SimpleMeterRegistry());
+
+		assertThat(admissionControl.admit(EndpointClass.EXPORT, "user:busy")).isNull();
+		// While the only slot is taken the caller is shed, however often they retry, never rate limited
+		for (int i = 0; i < 3; i++) {
+			assertThat(admissionControl.admit(EndpointClass.EXPORT, "user:waiting").status()).isEqualTo(503);
+		}
+		admissionControl.release(EndpointClass.EXPORT);
+
+		assertThat(admissionControl.admit(EndpointClass.EXPORT, "user:waiting")).isNull();
+		admissionControl.release(EndpointClass.EXPORT);
+		assertThat(admissionControl.admit(EndpointClass.EXPORT, "user:waiting").status()).isEqualTo(429);
+	}
+
+	// With Boot's converters, for the Duration properties
+	private static MockEnvironment environment() {
+		MockEnvironment environment = new MockEnvironment();
+		environment.setConversionService(new ApplicationConversionService());
+		return environment;
+	}
+
+	private static int login(AdmissionControlFilter filter, String address, String username) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/login");
+		request.setRemoteAddr(address);
+		request.setParameter("username", username);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response.getStatus();
+	}
+}
@@ -0,0 +1,48 @@
+package com.app.Todo.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConcurrencyLimitedDataSourceTests {
+
+	@Test
+	void aPermitIsHeldFromGettingAConnectionUntilItIsClosedOnce() throws Exception {
+		DataSource pool = mock(DataSource.class);
+		Connection pooled = mock(Connection.class);
+		when(pool.getConnection()).thenReturn(pooled);
+		ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(50));
+
+		Connection first = limited.getConnection();
+		assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+		// Closing twice gives back one permit, not two
+		first.close();
+		first.close();
+		verify(pooled, times(2)).close();
+		Connection second = limited.getConnection();
+		assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+		second.close();
+	}
+
+	@Test
+	void aFailedConnectGivesThePermitBack() throws Exception {
+		DataSource pool = mock(DataSource.class);
+		when(pool.getConnection()).thenThrow(new SQLException("pool exhausted")).thenReturn(mock(Connection.class));
+		ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(pool, 1, Duration.ofMillis(50));
+
+		assertThatThrownBy(limited::getConnection).hasMessage("pool exhausted");
+		assertThat(limited.getConnection()).isNotNull();
+	}
+}
@@ -0,0 +1,99 @@
+package com.app.Todo.config;
+
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.app.Todo.services.ReadYourWrites;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two embedded databases with the same schema and no replication, so where a row can be read shows which pool served it
+@SpringBootTest(properties = {
+		"todo.datasource.replica.url=jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+		"todo.datasource.replica.migrate=true",
+		"todo.datasource.replica.pin=1m"
+})
+@ActiveProfiles("test")
+class ReadReplicaConfigTests {
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private ReadYourWrites readYourWrites;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primary;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replica;
+
+	@AfterEach
+	void clearAuthentication() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void transactionalWritesLandOnThePrimaryAndReadOnlyReadsComeFromTheReplica() {
+		newUser(userRepo, "routing-writer");
+
+		assertThat(countUsers(primary, "routing-writer")).isOne();
+		assertThat(countUsers(replica, "routing-writer")).isZero();
+		assertThat(readsUser(readOnly(), "routing-writer")).isFalse();
+		assertThat(readsUser(readWrite(), "routing-writer")).isTrue();
+	}
+
+	@Test
+	void aUserWhoJustWroteReadsThePrimaryWhileOthersStayOnTheReplica() {
+		User writer = newUser(userRepo, "routing-pinned");
+		User other = newUser(userRepo, "routing-unpinned");
+		readWrite().executeWithoutResult(status -> readYourWrites.recordWrite(writer));
+
+		authenticate(writer);
+		assertThat(readsUser(readOnly(), "routing-pinned")).isTrue();
+
+		authenticate(other);
+		assertThat(readsUser(readOnly(), "routing-pinned")).isFalse();
+	}
+
+	private boolean readsUser(TransactionTemplate tx, String username) {
+		return tx.execute(status -> userRepo.findByUsername(username)) != null;
+	}
+
+	private TransactionTemplate readOnly() {
+		TransactionTemplate tx = new TransactionTemplate(transactionManager);
+		tx.setReadOnly(true);
+		return tx;
+	}
+
+	private TransactionTemplate readWrite() {
+		return new TransactionTemplate(transactionManager);
+	}
+
+	private void authenticate(User user) {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+	}
+
+	private static int countUsers(DataSource dataSource, String username) {
+		return new JdbcTemplate(dataSource).queryForObject("select count(*) from user where username = ?", Integer.class, username);
+	}
+}
@@ -0,0 +1,49 @@
+package com.app.Todo.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestMetricsInterceptorTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void dashboardRequestsRecordTheirStatementsAndRenderTime() throws Exception {
+		mvc.perform(post("/register/save").param("username", "metrics-reader").param("password", "secret"))
+				.andExpect(redirectedUrl("/login"));
+		MockHttpSession session = (MockHttpSession) mvc.perform(post("/login")
+						.param("username", "metrics-reader").param("password", "secret"))
+				.andExpect(redirectedUrl("/tasks"))
+				.andReturn().getRequest().getSession();
+		DistributionSummary statements = meterRegistry.find("todo.sql.statements")
+				.tags("method", "GET", "uri", "/tasks").summary();
+		long before = statements == null ? 0 : statements.count();
+
+		mvc.perform(get("/tasks").session(session)).andExpect(status().isOk());
+
+		statements = meterRegistry.get("todo.sql.statements").tags("method", "GET", "uri", "/tasks").summary();
+		assertThat(statements.count()).isEqualTo(before + 1);
+		assertThat(statements.max()).isPositive();
+		assertThat(meterRegistry.get("todo.view.render").tag("view", "tasks").timer().count()).isPositive();
+	}
+}
@@ -0,0 +1,34 @@
+package com.app.Todo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoRuntimeHintsTests {
+
+	// Every template and migration on the classpath must be readable from an AOT-processed build
+	@Test
+	void templatesAndMigrationsAreRegisteredAsResources() throws Exception {
+		RuntimeHints hints = new RuntimeHints();
+		new TodoRuntimeHints.Resources().registerHints(hints, getClass().getClassLoader());
+
+		assertRegistered(hints, "templates/", "**/*.html");
+		assertRegistered(hints, "db/migration/", "**/*.sql");
+	}
+
+	private static void assertRegistered(RuntimeHints hints, String root, String pattern) throws IOException {
+		Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:" + root + pattern);
+		assertThat(resources).isNotEmpty();
+		for (Resource resource : resources) {
+			String path = resource.getURL().getPath();
+			String name = path.substring(path.lastIndexOf(root));
+			assertThat(RuntimeHintsPredicates.resource().forResource(name)).as(name).accepts(hints);
+		}
+	}
+}
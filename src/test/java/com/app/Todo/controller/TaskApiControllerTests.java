@@ -0,0 +1,105 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.services.InvalidRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskApiControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void badRequestsAreAnsweredWithTheirReason() throws Exception {
+		MockHttpSession session = registerAndLogin("api-caller");
+
+		mvc.perform(get("/api/v1/tasks").param("fields", "title,secret").session(session))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Unknown field: secret"));
+		mvc.perform(get("/api/v1/tasks/trends").param("from", "2026-02-01").param("to", "2026-01-01").session(session))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("from must not be after to"));
+		mvc.perform(get("/api/v1/tasks").param("status", "SOMEDAY").session(session))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("Invalid value for status"));
+	}
+
+	@Test
+	void anErrorAfterTheResponseIsCommittedLeavesItAlone() throws Exception {
+		TaskApiController controller = new TaskApiController(null, null, null, null, objectMapper);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		response.getOutputStream().write("[{\"id\":1},".getBytes());
+		response.setCommitted(true);
+
+		controller.badRequest(new InvalidRequestException("too late"), response);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1},");
+	}
+
+	@Test
+	void anUnexpectedFailureIsAJsonServerError() throws Exception {
+		TaskApiController controller = new TaskApiController(null, null, null, null, objectMapper);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		controller.serverError(new IllegalStateException("boom"), response);
+
+		assertThat(response.getStatus()).isEqualTo(500);
+		assertThat(response.getContentType()).startsWith("application/json");
+		assertThat(response.getContentAsString()).isEqualTo("{\"error\":\"Something went wrong. Please try again.\"}");
+	}
+
+	@Test
+	void clientsWithoutASessionAuthenticateWithHttpBasic() throws Exception {
+		mvc.perform(post("/register/save").param("username", "api-basic").param("password", "secret"))
+				.andExpect(redirectedUrl("/login"));
+
+		MvcResult result = mvc.perform(get("/api/v1/tasks").header(HttpHeaders.AUTHORIZATION, basic("api-basic", "secret")))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.tasks").isArray())
+				.andReturn();
+		assertThat(result.getRequest().getSession(false)).isNull();
+
+		mvc.perform(get("/api/v1/tasks").header(HttpHeaders.AUTHORIZATION, basic("api-basic", "wrong")))
+				.andExpect(status().isUnauthorized());
+		mvc.perform(get("/api/v1/tasks"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static String basic(String username, String password) {
+		return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private MockHttpSession registerAndLogin(String username) throws Exception {
+		mvc.perform(post("/register/save").param("username", username).param("password", "secret"))
+				.andExpect(redirectedUrl("/login"));
+		return (MockHttpSession) mvc.perform(post("/login").param("username", username).param("password", "secret"))
+				.andExpect(redirectedUrl("/tasks"))
+				.andReturn().getRequest().getSession();
+	}
+}
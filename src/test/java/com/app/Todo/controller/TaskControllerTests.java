@@ -0,0 +1,217 @@
+package com.app.Todo.controller;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.app.Todo.services.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void dashboardPagesThroughEveryTaskExactlyOnce() throws Exception {
+		MockHttpSession session = registerAndLogin("keyset-pager");
+		User user = userRepo.findByUsername("keyset-pager");
+		for (int i = 0; i < TaskService.PAGE_SIZE + 5; i++) {
+			// Few distinct due dates, so pages split inside runs of equal sort keys
+			taskService.createTask("Task " + i, LocalDate.now().plusDays(i % 3), Status.NOT_STARTED,
+					Priority.LOW, Category.WORK, user);
+		}
+		List<Long> created = taskService.getAllTasksByUser(user).stream().map(TaskRow::id).toList();
+
+		ModelAndView first = mvc.perform(get("/tasks?sort=date").session(session))
+				.andExpect(status().isOk()).andReturn().getModelAndView();
+		List<TaskRow> firstPage = (List<TaskRow>) first.getModel().get("tasks");
+		assertThat(firstPage).hasSize(TaskService.PAGE_SIZE);
+
+		ModelAndView second = mvc.perform(get(URI.create((String) first.getModel().get("nextPageUrl"))).session(session))
+				.andExpect(status().isOk()).andReturn().getModelAndView();
+		List<TaskRow> secondPage = (List<TaskRow>) second.getModel().get("tasks");
+		assertThat(secondPage).hasSize(5);
+		assertThat(second.getModel()).doesNotContainKey("nextPageUrl").containsKey("firstPageUrl");
+
+		List<Long> seen = new ArrayList<>();
+		firstPage.forEach(task -> seen.add(task.id()));
+		secondPage.forEach(task -> seen.add(task.id()));
+		assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(created);
+	}
+
+	@Test
+	void bulkEndpointsChangeOnlyTheCallersTasks() throws Exception {
+		MockHttpSession session = registerAndLogin("bulk-owner");
+		User user = userRepo.findByUsername("bulk-owner");
+		mvc.perform(post("/tasks/bulk").param("titles", "One\nTwo\r\n\nThree").param("dueDate", "2026-07-01")
+						.param("priority", "HIGH").session(session))
+				.andExpect(redirectedUrl("/tasks"))
+				.andExpect(flash().attribute("successMessage", "3 tasks created!"));
+		List<TaskRow> created = taskService.getAllTasksByUser(user);
+		assertThat(created).extracting(TaskRow::title).containsExactlyInAnyOrder("One", "Two", "Three");
+		assertThat(created).allMatch(row -> row.priority() == Priority.HIGH && row.status() == Status.NOT_STARTED);
+
+		MockHttpSession otherSession = registerAndLogin("bulk-bystander");
+		User bystander = userRepo.findByUsername("bulk-bystander");
+		TaskRow theirs = taskService.createTask("Theirs", LocalDate.now(), Status.NOT_STARTED, Priority.LOW,
+				Category.WORK, bystander);
+		String[] ids = {String.valueOf(created.get(0).id()), String.valueOf(created.get(1).id()),
+				String.valueOf(theirs.id())};
+
+		mvc.perform(post("/tasks/bulk/status").param("ids", ids).param("status", "COMPLETED").session(session))
+				.andExpect(flash().attribute("successMessage", "2 tasks updated!"));
+		mvc.perform(post("/tasks/bulk/category").param("ids", ids).param("category", "SHOPPING").session(session))
+				.andExpect(flash().attribute("successMessage", "2 tasks updated!"));
+		mvc.perform(post("/tasks/bulk/delete").param("ids", ids).session(session))
+				.andExpect(flash().attribute("successMessage", "2 tasks deleted!"));
+		mvc.perform(post("/tasks/bulk/delete").session(otherSession))
+				.andExpect(flash().attribute("error", "Select at least one task"));
+
+		assertThat(taskService.getAllTasksByUser(user)).extracting(TaskRow::title).containsExactly("Three");
+		assertThat(taskService.getAllTasksByUser(bystander)).containsExactly(theirs);
+	}
+
+	@Test
+	void fragmentMutationsAnswerWithJustTheChangedRowsAndStats() throws Exception {
+		MockHttpSession session = registerAndLogin("fragment-user");
+		User user = userRepo.findByUsername("fragment-user");
+
+		String created = mvc.perform(post("/tasks").header("X-Fragment", "1").session(session)
+						.param("title", "Fragmented").param("dueDate", "2026-08-01").param("status", "NOT_STARTED")
+						.param("priority", "LOW").param("category", "WORK"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		TaskRow row = taskService.getAllTasksByUser(user).get(0);
+		assertThat(created).contains("id=\"task-" + row.id() + "\"", "Fragmented", "id=\"task-stats\"")
+				.doesNotContain("<html");
+
+		String toggled = mvc.perform(post("/tasks/{id}/status", row.id()).header("X-Fragment", "1")
+						.param("status", "COMPLETED").session(session))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(toggled).contains("id=\"task-" + row.id() + "\"", "card-completed");
+
+		mvc.perform(post("/tasks/{id}/delete", row.id()).header("X-Fragment", "1").session(session))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("id=\"task-" + row.id() + "\" data-removed")));
+		assertThat(taskService.getAllTasksByUser(user)).isEmpty();
+
+		// Invalid input is refused, so the page falls back to a normal form post
+		mvc.perform(post("/tasks").header("X-Fragment", "1").session(session)
+						.param("title", "").param("dueDate", "2026-08-01"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void editFormsOfDifferentTasksNeverShareAnETag() throws Exception {
+		MockHttpSession session = registerAndLogin("etag-editor");
+		User user = userRepo.findByUsername("etag-editor");
+		LocalDate due = LocalDate.now().plusDays(3);
+		TaskRow first = taskService.createTask("First", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		TaskRow second = taskService.createTask("Second", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+
+		String firstEtag = editForm(first.id(), session).getHeader(HttpHeaders.ETAG);
+		String secondEtag = editForm(second.id(), session).getHeader(HttpHeaders.ETAG);
+		assertThat(firstEtag).isNotNull().isNotEqualTo(secondEtag);
+
+		// One task's validator does not stand for another's form
+		mvc.perform(get("/tasks/{id}/edit", second.id()).header(HttpHeaders.IF_NONE_MATCH, firstEtag).session(session))
+				.andExpect(status().isOk())
+				.andExpect(model().attribute("task", hasProperty("title", is("Second"))));
+		mvc.perform(get("/tasks/{id}/edit", second.id()).header(HttpHeaders.IF_NONE_MATCH, secondEtag).session(session))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void anUnchangedDashboardIsAnsweredWithNotModified() throws Exception {
+		MockHttpSession session = registerAndLogin("etag-dashboard");
+		User user = userRepo.findByUsername("etag-dashboard");
+		String etag = mvc.perform(get("/tasks").session(session))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.COOKIE))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+		mvc.perform(get("/tasks").header(HttpHeaders.IF_NONE_MATCH, etag).session(session))
+				.andExpect(status().isNotModified());
+
+		taskService.createTask("New", LocalDate.now(), Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+
+		mvc.perform(get("/tasks").header(HttpHeaders.IF_NONE_MATCH, etag).session(session))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void writesFromElsewhereInvalidateTheDashboardEtag() throws Exception {
+		MockHttpSession session = registerAndLogin("etag-elsewhere");
+		User user = userRepo.findByUsername("etag-elsewhere");
+		String etag = mvc.perform(get("/tasks").session(session))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mvc.perform(get("/tasks").header(HttpHeaders.IF_NONE_MATCH, etag).session(session))
+				.andExpect(status().isNotModified());
+
+		// Another instance's write only shows in the database
+		jdbc.update("update user set change_seq = change_seq + 1 where id = ?", user.getId());
+
+		mvc.perform(get("/tasks").header(HttpHeaders.IF_NONE_MATCH, etag).session(session))
+				.andExpect(status().isOk());
+	}
+
+	private MockHttpServletResponse editForm(Long id, MockHttpSession session) throws Exception {
+		return mvc.perform(get("/tasks/{id}/edit", id).session(session))
+				.andExpect(status().isOk())
+				.andReturn().getResponse();
+	}
+
+	private MockHttpSession registerAndLogin(String username) throws Exception {
+		mvc.perform(post("/register/save").param("username", username).param("password", "secret"))
+				.andExpect(redirectedUrl("/login"));
+		return (MockHttpSession) mvc.perform(post("/login").param("username", username).param("password", "secret"))
+				.andExpect(redirectedUrl("/tasks"))
+				.andReturn().getRequest().getSession();
+	}
+}
@@ -0,0 +1,93 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskChange;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskArchiveServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskArchiveService taskArchiveService;
+
+	@Autowired
+	private TaskStatsService taskStatsService;
+
+	@Autowired
+	private TaskChangeLog taskChangeLog;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void oldCompletionsMoveToTheArchiveAndStayReadable() {
+		User user = newUser(userRepo, "archive-mover");
+		LocalDate due = LocalDate.now().plusDays(7);
+		TaskRow old = taskService.createTask("Filed long ago", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+		TaskRow recent = taskService.createTask("Done this week", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+		TaskRow open = taskService.createTask("Still open", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		jdbc.update("update task set completed_at = dateadd('DAY', -365, completed_at) where id = ?", old.id());
+		assertThat(taskStatsService.getStats(user).getTotal()).isEqualTo(3);
+
+		taskArchiveService.archiveCompleted();
+
+		assertThat(taskService.getAllTasksByUser(user)).extracting(TaskRow::id)
+				.containsExactlyInAnyOrder(recent.id(), open.id());
+		assertThat(archivedIds(user)).containsExactly(old.id());
+		assertThat(taskStatsService.getStats(user).getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	void archivedTasksLeaveDeltaSyncAndCanStillBeDeleted() {
+		User user = newUser(userRepo, "archive-sync");
+		LocalDate due = LocalDate.now().plusDays(7);
+		TaskRow old = taskService.createTask("Filed long ago", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+		TaskRow open = taskService.createTask("Still open", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		jdbc.update("update task set completed_at = dateadd('DAY', -365, completed_at) where id = ?", old.id());
+		long synced = taskChangeLog.changesSince(user, 0).next();
+
+		taskArchiveService.archiveCompleted();
+
+		// Incremental and full sync agree: the archived task is gone from both
+		TaskChanges delta = taskChangeLog.changesSince(user, synced);
+		assertThat(delta.deleted()).containsExactly(old.id());
+		assertThat(delta.changed()).isEmpty();
+		assertThat(taskChangeLog.changesSince(user, 0).changed()).extracting(TaskChange::id).containsExactly(open.id());
+		assertThat(archivedIds(user)).containsExactly(old.id());
+
+		assertThat(taskService.deleteTask(old.id(), user)).isTrue();
+		assertThat(archivedIds(user)).isEmpty();
+		assertThat(taskService.deleteTask(old.id(), user)).isFalse();
+		assertThat(taskService.deleteTask(open.id(), newUser(userRepo, "archive-other"))).isFalse();
+	}
+
+	private List<Long> archivedIds(User user) {
+		TaskQuery query = new TaskQuery();
+		query.setArchived(true);
+		return taskService.findTasks(user, query, ScrollPosition.keyset()).getContent().stream()
+				.map(TaskRow::id).toList();
+	}
+}
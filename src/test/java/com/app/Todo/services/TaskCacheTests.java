@@ -0,0 +1,59 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskCacheTests {
+
+	@Test
+	void readsAreCachedPerUserUntilTheirWriteCommits() {
+		TaskCache cache = new TaskCache(1_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+		User user = userWithId(1L);
+		User other = userWithId(2L);
+		AtomicInteger loads = new AtomicInteger();
+
+		assertThat(cache.<String>get(user, "all", () -> "mine-" + loads.incrementAndGet())).isEqualTo("mine-1");
+		assertThat(cache.<String>get(user, "all", () -> "mine-" + loads.incrementAndGet())).isEqualTo("mine-1");
+		// Same shape, another user: never served the first user's entry
+		assertThat(cache.<String>get(other, "all", () -> "theirs-" + loads.incrementAndGet())).isEqualTo("theirs-2");
+
+		// Inside a transaction the invalidation waits for the commit, and is dropped on a rollback
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			cache.invalidate(user);
+			assertThat(cache.<String>get(user, "all", () -> "mine-" + loads.incrementAndGet())).isEqualTo("mine-1");
+			TransactionSynchronizationManager.getSynchronizations()
+					.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+		assertThat(cache.<String>get(user, "all", () -> "mine-" + loads.incrementAndGet())).isEqualTo("mine-1");
+
+		cache.invalidate(user);
+		assertThat(cache.<String>get(user, "all", () -> "mine-" + loads.incrementAndGet())).isEqualTo("mine-3");
+		assertThat(cache.<String>get(other, "all", () -> "theirs-" + loads.incrementAndGet())).isEqualTo("theirs-2");
+	}
+
+	@Test
+	void aMaxWeightOfZeroReadsThroughEveryTime() {
+		TaskCache cache = new TaskCache(0, Duration.ofMinutes(5), new SimpleMeterRegistry());
+		AtomicInteger loads = new AtomicInteger();
+		cache.get(userWithId(1L), "all", loads::incrementAndGet);
+		cache.get(userWithId(1L), "all", loads::incrementAndGet);
+		assertThat(loads).hasValue(2);
+	}
+
+	private static User userWithId(Long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+}
@@ -0,0 +1,84 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskChange;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskChangeLogTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskChangeLog taskChangeLog;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void aDeltaHoldsEachChangedTaskOnceAndEveryDeletion() {
+		User user = newUser(userRepo, "delta-sync");
+		LocalDate due = LocalDate.now().plusDays(4);
+		TaskRow kept = taskService.createTask("Kept", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		TaskRow edited = taskService.createTask("Edited", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		TaskRow deleted = taskService.createTask("Deleted", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		TaskChanges full = taskChangeLog.changesSince(user, 0);
+		assertThat(full.changed()).extracting(TaskChange::id).containsExactly(kept.id(), edited.id(), deleted.id());
+		assertThat(full.hasMore()).isFalse();
+
+		taskService.changeStatus(edited.id(), Status.IN_PROGRESS, user);
+		taskService.updateCategory(List.of(edited.id()), Category.HEALTH, user);
+		taskService.deleteTask(deleted.id(), user);
+		TaskRow created = taskService.createTask("Created", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+
+		TaskChanges delta = taskChangeLog.changesSince(user, full.next());
+		assertThat(delta.reset()).isFalse();
+		assertThat(delta.changed()).extracting(TaskChange::id).containsExactly(edited.id(), created.id());
+		assertThat(delta.deleted()).containsExactly(deleted.id());
+		assertThat(delta.next()).isGreaterThan(full.next());
+
+		TaskChanges nothing = taskChangeLog.changesSince(user, delta.next());
+		assertThat(nothing.changed()).isEmpty();
+		assertThat(nothing.deleted()).isEmpty();
+		assertThat(nothing.next()).isEqualTo(delta.next());
+	}
+
+	@Test
+	void clientsFromBeforeAPurgedTombstoneStartOver() {
+		User user = newUser(userRepo, "delta-floor");
+		LocalDate due = LocalDate.now().plusDays(4);
+		taskService.createTask("Stays", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		TaskRow gone = taskService.createTask("Gone", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		long synced = taskChangeLog.changesSince(user, 0).next();
+		taskService.deleteTask(gone.id(), user);
+		jdbc.update("update task_tombstone set deleted_at = dateadd('DAY', -365, deleted_at) where task_id = ?", gone.id());
+
+		taskChangeLog.compact();
+
+		assertThat(taskChangeLog.changesSince(user, synced).reset()).isTrue();
+		// The full sync that follows leaves the client past the purged change, not sent back again
+		TaskChanges full = taskChangeLog.changesSince(user, 0);
+		assertThat(full.changed()).extracting(TaskChange::title).containsExactly("Stays");
+		assertThat(taskChangeLog.changesSince(user, full.next()).reset()).isFalse();
+	}
+}
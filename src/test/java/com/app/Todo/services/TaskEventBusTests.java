@@ -0,0 +1,183 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskEventBusTests {
+
+	@Test
+	void aResumedStreamGetsExactlyTheEventsItMissed() throws Exception {
+		try (TaskEventBus bus = new TaskEventBus(Duration.ofMinutes(1), Duration.ofMinutes(5), 4, Duration.ofMinutes(1))) {
+			User user = userWithId(1L);
+			User other = userWithId(2L);
+			String start = bus.currentEventId(user);
+			bus.currentEventId(other);
+
+			RecordingListener first = new RecordingListener();
+			Runnable unsubscribe = bus.subscribe(user, start, first);
+			bus.publish(user, List.of(), List.of(), List.of(1L));
+			// Another user's changes never reach this stream
+			bus.publish(other, List.of(), List.of(), List.of(9L));
+			assertThat(first.next()).isEqualTo("event");
+
+			// Inside a transaction nothing is sent until it commits, and nothing at all after a rollback
+			TransactionSynchronizationManager.initSynchronization();
+			try {
+				bus.publish(user, List.of(), List.of(), List.of(99L));
+				TransactionSynchronizationManager.getSynchronizations()
+						.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+			} finally {
+				TransactionSynchronizationManager.clearSynchronization();
+			}
+			assertThat(first.received.poll(200, TimeUnit.MILLISECONDS)).isNull();
+
+			unsubscribe.run();
+			bus.publish(user, List.of(), List.of(), List.of(2L));
+			bus.publish(user, List.of(), List.of(), List.of(3L));
+
+			RecordingListener resumed = new RecordingListener();
+			bus.subscribe(user, first.lastEventId, resumed);
+			assertThat(resumed.next()).isEqualTo("event");
+			assertThat(resumed.next()).isEqualTo("event");
+			assertThat(resumed.lastEventId).isEqualTo(bus.currentEventId(user));
+
+			// An id from another run cannot be resumed from, so the page is told to reload
+			RecordingListener stale = new RecordingListener();
+			bus.subscribe(user, "0-1", stale);
+			assertThat(stale.next()).isEqualTo("reset");
+		}
+	}
+
+	@Test
+	void aStalledClientDelaysNobodyAndIsDropped() throws Exception {
+		try (TaskEventBus bus = new TaskEventBus(Duration.ofMillis(50), Duration.ofMinutes(5), 4, Duration.ofMillis(200))) {
+			User user = userWithId(1L);
+			User other = userWithId(2L);
+			StalledListener stalled = new StalledListener();
+			RecordingListener sameUser = new RecordingListener();
+			RecordingListener otherUser = new RecordingListener();
+			bus.subscribe(user, null, stalled);
+			bus.subscribe(user, null, sameUser);
+			bus.subscribe(other, null, otherUser);
+
+			// Publishing only queues, so it returns at once although one write never finishes
+			long start = System.nanoTime();
+			for (int i = 0; i < 3; i++) {
+				bus.publish(user, List.of(), List.of(), List.of((long) i));
+			}
+			bus.publish(other, List.of(), List.of(), List.of(9L));
+			assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(100));
+
+			assertThat(sameUser.next()).isEqualTo("event");
+			assertThat(sameUser.next()).isEqualTo("event");
+			assertThat(sameUser.next()).isEqualTo("event");
+			assertThat(otherUser.next()).isEqualTo("event");
+			assertThat(stalled.closed.await(5, TimeUnit.SECONDS)).isTrue();
+			// Heartbeats keep reaching everyone else
+			assertThat(otherUser.next()).isEqualTo("heartbeat");
+			assertThat(sameUser.next()).isEqualTo("heartbeat");
+			stalled.release.countDown();
+		}
+	}
+
+	@Test
+	void aClientThatFallsTooFarBehindIsDropped() throws Exception {
+		try (TaskEventBus bus = new TaskEventBus(Duration.ofMinutes(1), Duration.ofMinutes(5), 4, Duration.ofMinutes(1))) {
+			User user = userWithId(3L);
+			StalledListener stalled = new StalledListener();
+			bus.subscribe(user, null, stalled);
+			for (int i = 0; i < 6; i++) {
+				bus.publish(user, List.of(), List.of(), List.of((long) i));
+			}
+			assertThat(stalled.closed.await(5, TimeUnit.SECONDS)).isTrue();
+			stalled.release.countDown();
+		}
+	}
+
+	@Test
+	void anIdFromADroppedChannelResetsTheClient() throws Exception {
+		try (TaskEventBus bus = new TaskEventBus(Duration.ofMillis(20), Duration.ofMillis(50), 4, Duration.ofMinutes(1))) {
+			User user = userWithId(4L);
+			bus.currentEventId(user);
+			bus.publish(user, List.of(), List.of(), List.of(1L));
+			String seen = bus.currentEventId(user);
+
+			// Idle past todo.events.retain: the channel is dropped, and its successor counts from 0 again
+			Thread.sleep(300);
+			bus.currentEventId(user);
+			bus.publish(user, List.of(), List.of(), List.of(2L));
+			bus.publish(user, List.of(), List.of(), List.of(3L));
+
+			RecordingListener listener = new RecordingListener();
+			bus.subscribe(user, seen, listener);
+			assertThat(listener.next()).isEqualTo("reset");
+		}
+	}
+
+	private static User userWithId(Long id) {
+		User user = new User();
+		user.setId(id);
+		return user;
+	}
+
+	private static class RecordingListener implements TaskEventBus.Listener {
+		final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+		volatile String lastEventId;
+
+		String next() throws InterruptedException {
+			return received.poll(5, TimeUnit.SECONDS);
+		}
+
+		@Override
+		public void onEvent(String id, TaskEvent event) {
+			lastEventId = id;
+			received.add("event");
+		}
+
+		@Override
+		public void onReset() {
+			received.add("reset");
+		}
+
+		@Override
+		public void onHeartbeat() {
+			received.add("heartbeat");
+		}
+
+		@Override
+		public void close() {
+			received.add("closed");
+		}
+	}
+
+	// Its first write blocks like one to a client that stopped reading
+	private static class StalledListener extends RecordingListener {
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch closed = new CountDownLatch(1);
+
+		@Override
+		public void onEvent(String id, TaskEvent event) {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		@Override
+		public void close() {
+			closed.countDown();
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskExportServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskExportService taskExportService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void exportsEveryRowWithTitlesEscaped() throws Exception {
+		User user = newUser(userRepo, "exporter");
+		LocalDate due = LocalDate.of(2026, 3, 4);
+		taskService.createTask("Plain", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		taskService.createTask("Say \"hi\", then\nleave", due, Status.COMPLETED, Priority.HIGH, Category.PERSONAL, user);
+		taskService.createTask("Not mine", due, Status.NOT_STARTED, Priority.LOW, Category.WORK,
+				newUser(userRepo, "exporter-other"));
+		List<Long> ids = taskService.getAllTasksByUser(user).stream().map(TaskRow::id).sorted().toList();
+
+		assertThat(export(user, TaskExportFormat.CSV)).isEqualTo(TaskExportService.CSV_HEADER + "\n"
+				+ ids.get(0) + ",Plain,2026-03-04,NOT_STARTED,LOW,WORK\n"
+				+ ids.get(1) + ",\"Say \"\"hi\"\", then\nleave\",2026-03-04,COMPLETED,HIGH,PERSONAL\n");
+
+		String[] lines = export(user, TaskExportFormat.JSONL).split("\n");
+		assertThat(lines).hasSize(2);
+		JsonNode second = objectMapper.readTree(lines[1]);
+		assertThat(second.get("id").asLong()).isEqualTo(ids.get(1));
+		assertThat(second.get("title").asText()).isEqualTo("Say \"hi\", then\nleave");
+		assertThat(second.get("category").asText()).isEqualTo("PERSONAL");
+	}
+
+	private String export(User user, TaskExportFormat format) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		taskExportService.exportTasks(user, format, false, out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,89 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskImportServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskExportService taskExportService;
+
+	@Autowired
+	private TaskImportService taskImportService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Test
+	void anExportImportsBackAsTheSameTasks() throws Exception {
+		User from = newUser(userRepo, "import-from");
+		User to = newUser(userRepo, "import-to");
+		LocalDate due = LocalDate.of(2026, 5, 6);
+		taskService.createTask("Plain", due, Status.IN_PROGRESS, Priority.LOW, Category.HEALTH, from);
+		taskService.createTask("Say \"hi\", then\nleave", due, Status.COMPLETED, Priority.HIGH, Category.PERSONAL, from);
+
+		for (TaskExportFormat format : TaskExportFormat.values()) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			taskExportService.exportTasks(from, format, false, out);
+			TaskImportResult result = taskImportService.importTasks(new ByteArrayInputStream(out.toByteArray()), format, to);
+			assertThat(result.getImportedCount()).isEqualTo(2);
+			assertThat(result.getFailedCount()).isZero();
+		}
+
+		List<String> imported = taskService.getAllTasksByUser(to).stream().map(TaskImportServiceTests::content).toList();
+		List<String> original = taskService.getAllTasksByUser(from).stream().map(TaskImportServiceTests::content).toList();
+		assertThat(imported).hasSize(4).containsExactlyInAnyOrderElementsOf(
+				List.of(original.get(0), original.get(1), original.get(0), original.get(1)));
+	}
+
+	@Test
+	void badRowsAreSkippedAndReportedWhileTheRestImport() throws Exception {
+		User user = newUser(userRepo, "import-partial");
+		String csv = "Title,Due Date,Priority\n"
+				+ "Good,2026-01-02,high\n"
+				+ ",2026-01-02,LOW\n"
+				+ "Bad date,yesterday,LOW\n"
+				+ "\"Also, good\",2026-01-03,\n";
+
+		TaskImportResult result = taskImportService.importTasks(
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), TaskExportFormat.CSV, user);
+
+		assertThat(result.getImportedCount()).isEqualTo(2);
+		assertThat(result.getFailedCount()).isEqualTo(2);
+		assertThat(result.getErrors()).hasSize(2).allMatch(error -> error.startsWith("Row 3: ") || error.startsWith("Row 4: "));
+		assertThat(taskService.getAllTasksByUser(user)).extracting(TaskRow::title)
+				.containsExactlyInAnyOrder("Good", "Also, good");
+
+		TaskImportResult jsonl = taskImportService.importTasks(new ByteArrayInputStream(
+				"{\"title\":\"Line\",\"dueDate\":\"2026-01-04\"}\n{not json\n".getBytes(StandardCharsets.UTF_8)),
+				TaskExportFormat.JSONL, user);
+		assertThat(jsonl.getImportedCount()).isEqualTo(1);
+		assertThat(jsonl.getErrors()).containsExactly("Row 2: Not valid JSON");
+	}
+
+	private static String content(TaskRow row) {
+		return row.title() + "|" + row.dueDate() + "|" + row.status() + "|" + row.priority() + "|" + row.category();
+	}
+}
@@ -0,0 +1,72 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskQueryTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Test
+	void priorityPagesRunFromHighToLowAcrossCursors() {
+		User user = newUser(userRepo, "priority-sorter");
+		Priority[] cycle = {Priority.LOW, Priority.HIGH, Priority.MEDIUM};
+		List<TaskRow> created = new ArrayList<>();
+		for (int i = 0; i < 2 * TaskService.PAGE_SIZE + 5; i++) {
+			created.add(taskService.createTask("Task " + i, LocalDate.now().plusDays(i % 7), Status.NOT_STARTED,
+					cycle[i % cycle.length], Category.WORK, user));
+		}
+		Comparator<TaskRow> byUrgency = Comparator.comparing(TaskRow::priority)
+				.thenComparing(TaskRow::dueDate).thenComparing(TaskRow::id);
+
+		assertThat(ids(readAll(user, "priority,date"))).isEqualTo(ids(created.stream().sorted(byUrgency).toList()));
+		assertThat(ids(readAll(user, "-priority,date")))
+				.isEqualTo(ids(created.stream().sorted(Comparator.comparing(TaskRow::priority).reversed()
+						.thenComparing(TaskRow::dueDate).thenComparing(TaskRow::id)).toList()));
+		assertThat(readAll(user, "priority").get(0).priority()).isEqualTo(Priority.HIGH);
+	}
+
+	// Every page in turn, each fetched with the previous page's cursor as a client would
+	private List<TaskRow> readAll(User user, String sort) {
+		TaskQuery query = new TaskQuery();
+		query.setSort(sort);
+		List<TaskRow> rows = new ArrayList<>();
+		ScrollPosition position = ScrollPosition.keyset();
+		while (true) {
+			Window<TaskRow> page = taskService.findTasks(user, query, position);
+			rows.addAll(page.getContent());
+			if (!page.hasNext()) {
+				return rows;
+			}
+			position = TaskCursor.decode(TaskCursor.encode(page.positionAt(page.size() - 1)));
+		}
+	}
+
+	private static List<Long> ids(List<TaskRow> rows) {
+		return rows.stream().map(TaskRow::id).toList();
+	}
+}
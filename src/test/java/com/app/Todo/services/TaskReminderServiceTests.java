@@ -0,0 +1,89 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.Task;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskReminderServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskReminderService taskReminderService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void remindersGoOutOncePerLevel() {
+		User user = newUser(userRepo, "reminders");
+		LocalDate today = LocalDate.now();
+		TaskRow overdue = create(user, "Was due", today.minusDays(3), Status.IN_PROGRESS);
+		TaskRow dueSoon = create(user, "Due tomorrow", today.plusDays(1), Status.NOT_STARTED);
+		TaskRow later = create(user, "Due next month", today.plusDays(30), Status.NOT_STARTED);
+		TaskRow done = create(user, "Done already", today.minusDays(3), Status.COMPLETED);
+		// Reminded as due soon before it slipped past its date
+		TaskRow slipped = create(user, "Slipped", today.minusDays(1), Status.NOT_STARTED);
+		jdbc.update("update task set reminder_level = 1 where id = ?", slipped.id());
+
+		taskReminderService.sendReminders();
+
+		assertThat(levelOf(overdue)).isEqualTo(TaskReminder.Kind.OVERDUE.level);
+		assertThat(levelOf(dueSoon)).isEqualTo(TaskReminder.Kind.DUE_SOON.level);
+		assertThat(levelOf(later)).isZero();
+		assertThat(levelOf(done)).isZero();
+		assertThat(levelOf(slipped)).isEqualTo(TaskReminder.Kind.OVERDUE.level);
+
+		assertThat(taskReminderService.sendReminders()).isZero();
+	}
+
+	@Test
+	void batchesPickUpRightAfterTheLastTaskOfThePreviousOne() {
+		User owner = newUser(userRepo, "reminders-batched");
+		LocalDate tomorrow = LocalDate.now().plusDays(1);
+		// More than one batch, on few due dates, so batches split inside runs of the same date
+		List<Task> tasks = IntStream.range(0, TaskReminderService.BATCH_SIZE + 10).mapToObj(i -> {
+			Task task = new Task();
+			task.setTitle("Task " + i);
+			task.setDueDate(tomorrow.minusDays(i % 2));
+			return task;
+		}).toList();
+		taskService.createTasks(tasks, owner);
+
+		taskReminderService.sendReminders();
+
+		assertThat(jdbc.queryForList("select reminder_level from task where user_id = ?", Integer.class, owner.getId()))
+				.hasSize(TaskReminderService.BATCH_SIZE + 10)
+				.containsOnly(TaskReminder.Kind.DUE_SOON.level);
+	}
+
+	private TaskRow create(User user, String title, LocalDate dueDate, Status status) {
+		return taskService.createTask(title, dueDate, status, Priority.MEDIUM, Category.PERSONAL, user);
+	}
+
+	private int levelOf(TaskRow task) {
+		return jdbc.queryForObject("select reminder_level from task where id = ?", Integer.class, task.id());
+	}
+}
@@ -0,0 +1,142 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskRollupsTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskArchiveService taskArchiveService;
+
+	@Autowired
+	private TaskRollups taskRollups;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void rollupMatchesACountFromScratchAfterEveryKindOfWrite() {
+		User user = newUser(userRepo, "rollup-writes");
+		LocalDate due = LocalDate.now().plusDays(5);
+
+		TaskRow done = taskService.createTask("Done", due, Status.COMPLETED, Priority.HIGH, Category.WORK, user);
+		TaskRow open = taskService.createTask("Open", due, Status.NOT_STARTED, Priority.LOW, Category.HEALTH, user);
+		TaskRow other = taskService.createTask("Other", due, Status.IN_PROGRESS, Priority.MEDIUM, Category.HEALTH, user);
+		assertRollupMatches(user, 1);
+
+		taskService.updateStatus(List.of(open.id(), other.id()), Status.COMPLETED, user);
+		assertRollupMatches(user, 3);
+
+		taskService.changeStatus(other.id(), Status.IN_PROGRESS, user);
+		assertRollupMatches(user, 2);
+
+		taskService.updateCategory(List.of(done.id(), open.id()), Category.SHOPPING, user);
+		taskService.updateTask(other.id(), null, "Other", due, Status.COMPLETED, Priority.HIGH, Category.PERSONAL, user);
+		assertRollupMatches(user, 3);
+
+		// A completed task changing priority moves bucket; a rename or a new due date leaves it where it is
+		taskService.updateTask(open.id(), null, "Open", due, Status.COMPLETED, Priority.HIGH, Category.SHOPPING, user);
+		assertRollupMatches(user, 3);
+		taskService.updateTask(open.id(), null, "Renamed", due.plusDays(1), Status.COMPLETED, Priority.HIGH,
+				Category.SHOPPING, user);
+		assertRollupMatches(user, 3);
+
+		// Deleting a task takes its completion out of the rollup with it
+		taskService.deleteTask(other.id(), user);
+		assertRollupMatches(user, 2);
+
+		// Completed long ago, then archived: still counted, on the day it was completed
+		backdate(user, done.id(), 365);
+		taskArchiveService.archiveCompleted();
+		assertThat(jdbc.queryForObject("select count(*) from task_archive where id = ?", Integer.class, done.id()))
+				.isEqualTo(1);
+		assertRollupMatches(user, 2);
+
+		taskService.deleteTasks(List.of(open.id()), user);
+		taskService.deleteTask(done.id(), user);
+		assertRollupMatches(user, 0);
+	}
+
+	@Test
+	void completionsWithoutARealDateAreLeftOutUntilCompletedAgain() {
+		User user = newUser(userRepo, "rollup-undated");
+		LocalDate due = LocalDate.now().plusDays(5);
+		TaskRow old = taskService.createTask("Done before V6", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+		taskService.createTask("Done since", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+
+		// As V6 leaves a task that was already completed, its owner waiting for the backfill
+		jdbc.update("update task set completed_at = timestamp '2020-01-01 12:00:00', completion_undated = true "
+				+ "where id = ?", old.id());
+		jdbc.update("update user set rollups_ready = false where id = ?", user.getId());
+		taskRollups.backfill();
+		assertRollupMatches(user, 1);
+		assertThat(jdbc.queryForObject("select count(*) from task_completion_daily where user_id = ? and rollup_date = ?",
+				Integer.class, user.getId(), LocalDate.of(2020, 1, 1))).isZero();
+
+		taskService.changeStatus(old.id(), Status.NOT_STARTED, user);
+		assertRollupMatches(user, 1);
+		taskService.changeStatus(old.id(), Status.COMPLETED, user);
+		assertRollupMatches(user, 2);
+	}
+
+	// The rollup's non-zero rows are exactly a GROUP BY over the user's live and archived tasks now
+	private void assertRollupMatches(User user, int completed) {
+		Map<String, Integer> expected = counts("select cast(completed_at as date) d, category, priority, count(*) n from ("
+				+ "select completed_at, category, priority from task where user_id = ? and completed_at is not null "
+				+ "and not completion_undated union all "
+				+ "select completed_at, category, priority from task_archive where user_id = ? and completed_at is not null "
+				+ "and not completion_undated) c "
+				+ "group by cast(completed_at as date), category, priority", user.getId(), user.getId());
+		Map<String, Integer> rollup = counts("select rollup_date d, category, priority, completed n "
+				+ "from task_completion_daily where user_id = ? and completed <> 0", user.getId());
+		assertThat(rollup).isEqualTo(expected);
+		assertThat(rollup.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(completed);
+	}
+
+	private Map<String, Integer> counts(String sql, Object... args) {
+		Map<String, Integer> counts = new TreeMap<>();
+		jdbc.query(sql, rs -> {
+			counts.put(rs.getDate("d") + " " + rs.getString("category") + " " + rs.getString("priority"), rs.getInt("n"));
+		}, args);
+		return counts;
+	}
+
+	// Moves a completion back in time the way a write would: out of the rollup, changed, back in
+	private void backdate(User user, Long taskId, int days) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			taskRollups.removeCompletions(user, List.of(taskId));
+			jdbc.update("update task set completed_at = dateadd('DAY', ?, completed_at) where id = ?", -days, taskId);
+			taskRollups.addCompletions(user, List.of(taskId));
+		});
+	}
+}
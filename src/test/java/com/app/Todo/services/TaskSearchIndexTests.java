@@ -0,0 +1,94 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskSearchIndexTests {
+
+	private final TaskRepo taskRepo = mock(TaskRepo.class);
+
+	private final UserRepo userRepo = mock(UserRepo.class);
+
+	@Test
+	void indexesAreBoundedByTheTasksTheyHold() {
+		TaskSearchIndex index = new TaskSearchIndex(taskRepo, userRepo, 10);
+		User first = userWithTasks(1L, 6);
+		User second = userWithTasks(2L, 6);
+
+		assertThat(index.search(first, keyword("invoice"))).hasSize(6);
+		assertThat(index.indexedTasks()).isEqualTo(6);
+		assertThat(index.search(second, keyword("invoce"))).hasSize(6);
+
+		// Both would be 12 tasks: the least recently searched index goes
+		assertThat(index.indexedTasks()).isEqualTo(6);
+		index.search(second, keyword("invoice"));
+		verify(taskRepo, times(1)).streamRowsByUser(second);
+		index.search(first, keyword("invoice"));
+		verify(taskRepo, times(2)).streamRowsByUser(first);
+	}
+
+	@Test
+	void committedChangesCountTowardsTheWeight() {
+		TaskSearchIndex index = new TaskSearchIndex(taskRepo, userRepo, 100);
+		User user = userWithTasks(3L, 2);
+		index.search(user, keyword("invoice"));
+
+		index.recordChanges(user, 1, List.of(), List.of(row(100L, "Pay invoice"), row(101L, "File invoice")));
+		assertThat(index.indexedTasks()).isEqualTo(4);
+		index.recordRemovals(user, 2, List.of(100L, 101L, 3001L));
+		assertThat(index.indexedTasks()).isEqualTo(1);
+	}
+
+	@Test
+	void anIndexIsBuiltAgainOnceWritesFromElsewhereMovedTheSequence() {
+		TaskSearchIndex index = new TaskSearchIndex(taskRepo, userRepo, 100);
+		User user = userWithTasks(4L, 2);
+		when(userRepo.findChangeSeq(4L)).thenReturn(7L);
+		index.search(user, keyword("invoice"));
+
+		// This instance's own write moves the index along with the sequence
+		index.recordChanges(user, 8, List.of(), List.of(row(100L, "Pay invoice")));
+		when(userRepo.findChangeSeq(4L)).thenReturn(8L);
+		assertThat(index.search(user, keyword("invoice"))).hasSize(3);
+		verify(taskRepo, times(1)).streamRowsByUser(user);
+
+		// One it never heard of does not
+		when(userRepo.findChangeSeq(4L)).thenReturn(9L);
+		assertThat(index.search(user, keyword("invoice"))).hasSize(2);
+		verify(taskRepo, times(2)).streamRowsByUser(user);
+	}
+
+	private User userWithTasks(Long id, int tasks) {
+		User user = new User();
+		user.setId(id);
+		when(taskRepo.streamRowsByUser(user)).thenAnswer(invocation -> LongStream.rangeClosed(1, tasks)
+				.mapToObj(taskId -> row(id * 1000 + taskId, "Send invoice " + taskId)));
+		return user;
+	}
+
+	private static TaskRow row(Long id, String title) {
+		return new TaskRow(id, title, LocalDate.now(), Status.NOT_STARTED, Priority.LOW, Category.WORK);
+	}
+
+	private static TaskQuery keyword(String keyword) {
+		TaskQuery query = new TaskQuery();
+		query.setKeyword(keyword);
+		return query;
+	}
+}
@@ -0,0 +1,89 @@
+package com.app.Todo.services;
+
+import com.app.Todo.config.SqlStatementCounter;
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskForm;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Test
+	void updatesAreScopedToTheOwnerAndTheVersionLastSeen() {
+		User owner = newUser(userRepo, "single-owner");
+		User stranger = newUser(userRepo, "single-stranger");
+		LocalDate due = LocalDate.now().plusDays(2);
+		TaskRow row = taskService.createTask("Draft", due, Status.NOT_STARTED, Priority.LOW, Category.WORK, owner);
+		Long seen = taskService.getTaskForm(row.id(), owner).getVersion();
+
+		// Someone else's task: nothing matches, and nothing changes
+		assertThat(taskService.updateTask(row.id(), seen, "Hijacked", due, Status.COMPLETED, Priority.HIGH,
+				Category.WORK, stranger)).isFalse();
+		assertThat(taskService.deleteTask(row.id(), stranger)).isFalse();
+		assertThat(taskService.getTaskForm(row.id(), stranger)).isNull();
+
+		assertThat(taskService.updateTask(row.id(), seen, "Final", due, Status.IN_PROGRESS, Priority.HIGH,
+				Category.WORK, owner)).isTrue();
+		TaskForm updated = taskService.getTaskForm(row.id(), owner);
+		assertThat(updated.getTitle()).isEqualTo("Final");
+		assertThat(updated.getVersion()).isGreaterThan(seen);
+
+		// A second form opened at the old version cannot overwrite the first one's save
+		assertThatThrownBy(() -> taskService.updateTask(row.id(), seen, "Stale", due, Status.NOT_STARTED, Priority.LOW,
+				Category.WORK, owner)).isInstanceOf(OptimisticLockingFailureException.class);
+		assertThat(taskService.getTaskForm(row.id(), owner).getTitle()).isEqualTo("Final");
+		// Without a version the last write wins
+		assertThat(taskService.updateTask(row.id(), null, "Forced", due, Status.NOT_STARTED, Priority.LOW,
+				Category.WORK, owner)).isTrue();
+
+		assertThat(taskService.deleteTask(row.id(), owner)).isTrue();
+		assertThat(taskService.getAllTasksByUser(owner)).isEmpty();
+	}
+
+	@Test
+	void taskReadsSelectRowsWithoutLoadingTheirOwner() {
+		User user = newUser(userRepo, "projection-reader");
+		LocalDate due = LocalDate.now().plusDays(2);
+		for (int i = 0; i < 3; i++) {
+			taskService.createTask("Task " + i, due, Status.NOT_STARTED, Priority.LOW, Category.WORK, user);
+		}
+
+		// One statement per read however many rows, none of them for the user
+		SqlStatementCounter.reset();
+		assertThat(taskService.findTasks(user, new TaskQuery(), ScrollPosition.keyset())).hasSize(3);
+		assertThat(SqlStatementCounter.current()).isEqualTo(1);
+		SqlStatementCounter.reset();
+		List<TaskRow> rows = taskService.getAllTasksByUser(user);
+		assertThat(rows).hasSize(3);
+		assertThat(SqlStatementCounter.current()).isEqualTo(1);
+
+		// The edit form reads its columns alone, never the entity
+		SqlStatementCounter.reset();
+		assertThat(taskService.getTaskForm(rows.get(0).id(), user).getTitle()).isEqualTo("Task 0");
+		assertThat(SqlStatementCounter.current()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,131 @@
+package com.app.Todo.services;
+
+import com.app.Todo.models.Category;
+import com.app.Todo.models.Priority;
+import com.app.Todo.models.Status;
+import com.app.Todo.models.TaskRow;
+import com.app.Todo.models.TaskStats;
+import com.app.Todo.models.User;
+import com.app.Todo.repo.TaskRepo;
+import com.app.Todo.repo.UserRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.app.Todo.TestUsers.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two embedded databases with the same schema and no replication: whatever is read from the replica is empty
+@SpringBootTest(properties = {
+		"todo.datasource.replica.url=jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+		"todo.datasource.replica.migrate=true",
+		"todo.datasource.replica.pin=0s"
+})
+@ActiveProfiles("test")
+class TaskStatsServiceTests {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskStatsService taskStatsService;
+
+	@Autowired
+	private TaskRepo taskRepo;
+
+	@Autowired
+	private UserRepo userRepo;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void statsAreRecountedOnThePrimary() {
+		User user = newUser(userRepo, "stats-primary");
+		LocalDate due = LocalDate.now().plusDays(7);
+		taskService.createTask("First task", due, Status.COMPLETED, Priority.HIGH, Category.WORK, user);
+		taskService.createTask("Second task", due, Status.NOT_STARTED, Priority.LOW, Category.HEALTH, user);
+
+		// Plain read-only finders go to the replica, which has none of the rows
+		assertThat(taskRepo.count()).isZero();
+
+		assertThat(taskStatsService.getStats(user).getTotal()).isEqualTo(2);
+		assertThat(taskStatsService.getStats(user).getCount(Status.COMPLETED)).isEqualTo(1);
+	}
+
+	@Test
+	void countersKeptByDeltasMatchARecountAfterEveryWrite() {
+		User user = newUser(userRepo, "stats-deltas");
+		LocalDate due = LocalDate.now().plusDays(7);
+		taskStatsService.getStats(user);
+
+		TaskRow first = taskService.createTask("First", due, Status.NOT_STARTED, Priority.HIGH, Category.WORK, user);
+		TaskRow second = taskService.createTask("Second", due, Status.IN_PROGRESS, Priority.LOW, Category.HEALTH, user);
+		TaskRow third = taskService.createTask("Third", due, Status.NOT_STARTED, Priority.MEDIUM, Category.OTHER, user);
+		assertMatchesRecount(user, 3);
+
+		taskService.updateStatus(List.of(first.id(), second.id()), Status.COMPLETED, user);
+		assertMatchesRecount(user, 3);
+		taskService.changeStatus(first.id(), Status.IN_PROGRESS, user);
+		taskService.updateCategory(List.of(first.id(), third.id()), Category.SHOPPING, user);
+		assertMatchesRecount(user, 3);
+		taskService.updateTask(third.id(), null, "Third", due, Status.COMPLETED, Priority.LOW, Category.WORK, user);
+		assertMatchesRecount(user, 3);
+
+		// A write that rolls back leaves the counters alone
+		new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+			taskService.createTask("Rolled back", due, Status.COMPLETED, Priority.HIGH, Category.WORK, user);
+			tx.setRollbackOnly();
+		});
+		assertMatchesRecount(user, 3);
+
+		taskService.deleteTasks(List.of(second.id()), user);
+		taskService.deleteTask(third.id(), user);
+		assertMatchesRecount(user, 1);
+	}
+
+	@Test
+	void writesThisInstanceDidNotSeeShowOnceTheCountersExpire() throws InterruptedException {
+		User user = newUser(userRepo, "stats-elsewhere");
+		LocalDate due = LocalDate.now().plusDays(7);
+		taskService.createTask("First", due, Status.NOT_STARTED, Priority.HIGH, Category.WORK, user);
+		// Another instance's view: it never hears of the writes made through this one's TaskService
+		TaskStatsService elsewhere = new TaskStatsService(taskRepo, transactionManager, 100, Duration.ofSeconds(2));
+		assertThat(elsewhere.getStats(user).getTotal()).isEqualTo(1);
+
+		taskService.createTask("Second", due, Status.NOT_STARTED, Priority.HIGH, Category.WORK, user);
+		assertThat(elsewhere.getStats(user).getTotal()).isEqualTo(1);
+		Thread.sleep(2500);
+		assertThat(elsewhere.getStats(user).getTotal()).isEqualTo(2);
+	}
+
+	// What the counters say now equals a fresh count of the user's rows
+	private void assertMatchesRecount(User user, long total) {
+		String kept = describe(taskStatsService.getStats(user));
+		taskStatsService.invalidate(user);
+		TaskStats recounted = taskStatsService.getStats(user);
+		assertThat(kept).isEqualTo(describe(recounted));
+		assertThat(recounted.getTotal()).isEqualTo(total);
+	}
+
+	private static String describe(TaskStats stats) {
+		StringBuilder description = new StringBuilder("total=" + stats.getTotal());
+		for (Status status : Status.values()) {
+			description.append(' ').append(status).append('=').append(stats.getCount(status));
+		}
+		for (Priority priority : Priority.values()) {
+			description.append(' ').append(priority).append('=').append(stats.getCount(priority));
+		}
+		for (Category category : Category.values()) {
+			description.append(' ').append(category).append('=').append(stats.getCount(category));
+		}
+		return description.toString();
+	}
+}
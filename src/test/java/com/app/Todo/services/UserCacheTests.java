@@ -0,0 +1,67 @@
+package com.app.Todo.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserCacheTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Test
+	void passwordChangeLocksOutTheOldPasswordUnderEveryCasing() throws Exception {
+		mvc.perform(post("/register/save").param("username", "casey").param("password", "old-secret"))
+				.andExpect(redirectedUrl("/login"));
+
+		// Cached under another casing than the one whose password is then changed
+		MockHttpSession session = login("CASEY", "old-secret");
+		login("casey", "old-secret");
+		mvc.perform(post("/tasks/profile/update").param("newPassword", "new-secret").session(session))
+				.andExpect(redirectedUrl("/login?updated"));
+
+		mvc.perform(post("/login").param("username", "CASEY").param("password", "old-secret"))
+				.andExpect(redirectedUrl("/login?error"));
+		mvc.perform(post("/login").param("username", "Casey").param("password", "old-secret"))
+				.andExpect(redirectedUrl("/login?error"));
+		login("CASEY", "new-secret");
+	}
+
+	@Test
+	void passwordChangedByAnotherInstanceLocksOutTheOldPassword() throws Exception {
+		mvc.perform(post("/register/save").param("username", "quinn").param("password", "old-secret"))
+				.andExpect(redirectedUrl("/login"));
+		login("quinn", "old-secret");
+
+		// Written past this instance, so its cache is never told
+		jdbc.update("update user set password = ? where username = ?", passwordEncoder.encode("new-secret"), "quinn");
+
+		mvc.perform(post("/login").param("username", "quinn").param("password", "old-secret"))
+				.andExpect(redirectedUrl("/login?error"));
+		login("quinn", "new-secret");
+	}
+
+	private MockHttpSession login(String username, String password) throws Exception {
+		return (MockHttpSession) mvc.perform(post("/login").param("username", username).param("password", password))
+				.andExpect(redirectedUrl("/tasks"))
+				.andReturn().getRequest().getSession();
+	}
+}